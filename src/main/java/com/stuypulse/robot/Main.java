@@ -5,10 +5,18 @@
 
 package com.stuypulse.robot;
 
+import com.stuypulse.robot.util.sim.SimTools;
+
 import edu.wpi.first.wpilibj.RobotBase;
 
 public final class Main {
     public static void main(String... args) {
+        String tool = SimTools.getSelectedTool();
+
+        if (tool != null) {
+            SimTools.runAndExit(tool);
+        }
+
         RobotBase.startRobot(Robot::new);
     }
 }
@@ -6,6 +6,7 @@
 package com.stuypulse.robot;
 
 import com.stuypulse.robot.commands.*;
+import com.stuypulse.robot.util.sim.SimLimelight;
 
 import edu.wpi.first.wpilibj.DataLogManager;
 import edu.wpi.first.wpilibj.TimedRobot;
@@ -18,6 +19,8 @@ public class Robot extends TimedRobot {
     private RobotContainer robot;
     private Command auto;
 
+    private SimLimelight limelight;
+
     /*************************/
     /*** ROBOT SCHEDULEING ***/
     /*************************/
@@ -42,7 +45,9 @@ public class Robot extends TimedRobot {
     public void disabledInit() {}
 
     @Override
-    public void disabledPeriodic() {}
+    public void disabledPeriodic() {
+        robot.updateAutonomousCommand();
+    }
 
     /***********************/
     /*** AUTONOMOUS MODE ***/
@@ -104,4 +109,18 @@ public class Robot extends TimedRobot {
     public void testExit() {
         robot.pump.stop();
     }
+
+    /***********************/
+    /*** SIMULATION MODE ***/
+    /***********************/
+
+    @Override
+    public void simulationInit() {
+        limelight = new SimLimelight(robot.drivetrain::getOdometryPose);
+    }
+
+    @Override
+    public void simulationPeriodic() {
+        limelight.update();
+    }
 }
@@ -17,6 +17,9 @@ import com.stuypulse.robot.commands.intake.*;
 import com.stuypulse.robot.commands.shooter.*;
 import com.stuypulse.robot.constants.*;
 import com.stuypulse.robot.subsystems.*;
+import com.stuypulse.robot.util.AutonLoader;
+import com.stuypulse.robot.util.AutonLoader.Auton;
+import com.stuypulse.robot.util.TrajectoryLoader;
 
 import edu.wpi.first.wpilibj.DriverStation;
 import edu.wpi.first.wpilibj.livewindow.LiveWindow;
@@ -29,22 +32,25 @@ public class RobotContainer {
 
     // Subsystems
     public final Climber climber = new Climber();
-    public final ColorSensor colorSensor = new ColorSensor();
-    public final Conveyor conveyor = new Conveyor(colorSensor);
+    public final SensorScheduler sensors = new SensorScheduler();
+    public final ColorSensor colorSensor = new ColorSensor(sensors);
+    public final Shooter shooter = new Shooter();
+    public final Conveyor conveyor = new Conveyor(colorSensor, shooter, sensors);
     public final Drivetrain drivetrain = new Drivetrain();
     public final Intake intake = new Intake(conveyor);
     public final LEDController leds = new LEDController(this);
     public final Pump pump = new Pump();
-    public final Shooter shooter = new Shooter();
 
     public final Camera camera = new Camera(shooter);
+    public final PoseEstimator poseEstimator = new PoseEstimator(camera, drivetrain);
 
     // Gamepads
     public final Gamepad driver = new AutoGamepad(Ports.Gamepad.DRIVER);
     public final Gamepad operator = new AutoGamepad(Ports.Gamepad.OPERATOR);
 
-    // Autons
-    private static SendableChooser<Command> autonChooser = new SendableChooser<>();
+    // Autons (trajectories are loaded in the background once selected)
+    private static SendableChooser<Auton> autonChooser = new SendableChooser<>();
+    private final AutonLoader autonLoader = new AutonLoader();
 
     public RobotContainer() {
         // Disable telemetry to reduce lag
@@ -154,20 +160,43 @@ public class RobotContainer {
     /**************/
 
     public void configureAutons() {
-        autonChooser.addOption("0 Ball", new MobilityAuton.NoEncoders(this));
-        autonChooser.addOption("2 Ball", new TwoBallAuton(this));
-        autonChooser.addOption("2 Ball Sam Mean", new TwoBallMeanerAuton(this));
-
-        autonChooser.setDefaultOption("5 Ball [DEFAULT]", new FiveBallAuton(this));
-        autonChooser.addOption("Partner Ball", new PartnerBallAuton(this));
-        autonChooser.addOption("Two Ball One Mean", new TwoBallOneMeanAuton(this));
-        autonChooser.addOption("Four Ball", new FourBallAuton(this));
+        autonChooser.addOption("0 Ball", new Auton(() -> new MobilityAuton.NoEncoders(this)));
+        autonChooser.addOption("2 Ball", new Auton("TwoBallAuton", () -> new TwoBallAuton(this)));
+        autonChooser.addOption(
+                "2 Ball Sam Mean",
+                new Auton("TwoBallMeanerAuton", () -> new TwoBallMeanerAuton(this)));
+
+        autonChooser.setDefaultOption(
+                "5 Ball [DEFAULT]", new Auton("FiveBallAuton", () -> new FiveBallAuton(this)));
+        autonChooser.addOption(
+                "Partner Ball",
+                new Auton("ThreeBallPartnerAuton", () -> new PartnerBallAuton(this)));
+        autonChooser.addOption(
+                "Two Ball One Mean",
+                new Auton("TwoBallOneMean", () -> new TwoBallOneMeanAuton(this)));
+        autonChooser.addOption(
+                "Four Ball", new Auton("FourBallAuton", () -> new FourBallAuton(this)));
 
         SmartDashboard.putData("Autonomous", autonChooser);
     }
 
+    // Gets the selected auton ready, call this while disabled
+    public void updateAutonomousCommand() {
+        autonLoader.update(autonChooser.getSelected());
+        SmartDashboard.putBoolean("Autonomous Ready", autonLoader.isReady());
+
+        if (Settings.DEBUG_MODE.get()) {
+            SmartDashboard.putNumber(
+                    "Debug/Trajectories/Cache Hits", TrajectoryLoader.getCacheHits());
+            SmartDashboard.putNumber(
+                    "Debug/Trajectories/Cache Misses", TrajectoryLoader.getCacheMisses());
+            SmartDashboard.putNumber(
+                    "Debug/Trajectories/Load Time (ms)", TrajectoryLoader.getLoadTime() * 1000.0);
+        }
+    }
+
     public Command getAutonomousCommand() {
-        return autonChooser.getSelected();
+        return autonLoader.get(autonChooser.getSelected());
     }
 }
 
@@ -0,0 +1,211 @@
+/************************ PROJECT DORCAS ************************/
+/* Copyright (c) 2022 StuyPulse Robotics. All rights reserved.  */
+/* This work is licensed under the terms of the MIT license.    */
+/****************************************************************/
+
+package com.stuypulse.robot.commands;
+
+import com.stuypulse.robot.RobotContainer;
+import com.stuypulse.robot.commands.conveyor.modes.ConveyorMode;
+import com.stuypulse.robot.commands.drivetrain.DrivetrainAlign;
+import com.stuypulse.robot.commands.drivetrain.DrivetrainRamsete;
+import com.stuypulse.robot.subsystems.Conveyor;
+import com.stuypulse.robot.subsystems.LEDController;
+import com.stuypulse.robot.subsystems.Shooter;
+import com.stuypulse.robot.util.LEDColor;
+
+import edu.wpi.first.util.datalog.StringLogEntry;
+import edu.wpi.first.wpilibj.DataLogManager;
+import edu.wpi.first.wpilibj.Timer;
+import edu.wpi.first.wpilibj.smartdashboard.SmartDashboard;
+import edu.wpi.first.wpilibj2.command.CommandBase;
+import edu.wpi.first.wpilibj2.command.CommandGroupBase;
+
+/**
+ * Drives a path, aligns and shoots everything in the conveyor, overlapping the three as much as it
+ * can.
+ *
+ * <p>Running a path, then an align with a timeout, then a shoot with a timeout wastes time between
+ * each of them. Here the limelight starts being tracked near the end of the path so the align does
+ * not start from nothing, balls are fed as soon as the shooter is ready and the robot is pointed
+ * close enough (without waiting for the align to settle), and the command ends as soon as the
+ * conveyor is empty.
+ *
+ * <p>The LEDs show the given color while driving, pulse it while aligning and go rainbow once
+ * balls are being fed. How long each stage took is put on SmartDashboard under the name of the
+ * shot and written to the DataLog when it ends, so every shot in an auton can be compared.
+ */
+public class AutonShoot extends CommandBase {
+
+    // How long before the end of the path to start tracking the target
+    private static final double TRACKING_TIME = 0.75;
+
+    // Shared by every shot, made the first time one ends
+    private static StringLogEntry timingLog = null;
+
+    // Name of the shot in the logs
+    private final String name;
+
+    private final DrivetrainRamsete path;
+    private final DrivetrainAlign align;
+    private final Conveyor conveyor;
+    private final Shooter shooter;
+    private final LEDController leds;
+
+    // Color to show while driving
+    private final LEDColor color;
+
+    // Longest we will spend aligning and shooting after the path
+    private final double timeout;
+
+    private final Timer timer;
+    private boolean driving;
+    private boolean tracking;
+
+    // When each stage started (in seconds from the start of the command)
+    private double trackingStart;
+    private double driveEnd;
+    private double feedStart;
+
+    public AutonShoot(
+            RobotContainer robot,
+            String name,
+            DrivetrainRamsete path,
+            double timeout,
+            LEDColor color) {
+        this.name = name;
+        this.path = path;
+        this.align = new DrivetrainAlign(robot.drivetrain, robot.camera);
+        this.conveyor = robot.conveyor;
+        this.shooter = robot.shooter;
+        this.leds = robot.leds;
+
+        this.color = color;
+
+        CommandGroupBase.requireUngrouped(path, align);
+        CommandGroupBase.registerGroupedCommands(path, align);
+
+        this.timeout = timeout;
+
+        this.timer = new Timer();
+
+        m_requirements.addAll(path.getRequirements());
+        m_requirements.addAll(align.getRequirements());
+        addRequirements(conveyor);
+    }
+
+    @Override
+    public void initialize() {
+        path.initialize();
+        conveyor.setMode(ConveyorMode.DEFAULT);
+        leds.setColor(color);
+
+        driving = true;
+        tracking = false;
+
+        trackingStart = Double.NaN;
+        driveEnd = Double.NaN;
+        feedStart = Double.NaN;
+
+        timer.reset();
+        timer.start();
+    }
+
+    @Override
+    public void execute() {
+        if (driving) {
+            path.execute();
+
+            if (!tracking && path.getTimeLeft() < TRACKING_TIME) {
+                align.startTracking();
+                trackingStart = timer.get();
+                tracking = true;
+            }
+
+            if (tracking) {
+                align.update();
+            }
+
+            if (!path.isFinished()) {
+                return;
+            }
+
+            path.end(false);
+            align.initialize();
+            leds.setColor(color.pulse());
+
+            driveEnd = timer.get();
+            driving = false;
+        }
+
+        align.execute();
+
+        if (shooter.isReady() && align.isAligned()) {
+            if (Double.isNaN(feedStart)) {
+                feedStart = timer.get();
+                leds.setColor(LEDColor.RAINBOW);
+            }
+
+            conveyor.setMode(ConveyorMode.SHOOT);
+        } else {
+            conveyor.setMode(ConveyorMode.DEFAULT);
+        }
+    }
+
+    @Override
+    public boolean isFinished() {
+        if (driving) {
+            return false;
+        }
+
+        return conveyor.isEmpty() || timer.get() - driveEnd > timeout;
+    }
+
+    @Override
+    public void end(boolean interrupted) {
+        if (driving) {
+            path.end(true);
+        } else {
+            align.end(interrupted);
+        }
+
+        conveyor.setMode(ConveyorMode.DEFAULT);
+        timer.stop();
+
+        logTiming(interrupted);
+    }
+
+    private void logTiming(boolean interrupted) {
+        double end = timer.get();
+
+        // stages that never happened took no time
+        double drive = Double.isNaN(driveEnd) ? end : driveEnd;
+        double feed = Double.isNaN(feedStart) ? end : feedStart;
+
+        double drivingTime = drive;
+        double trackingTime = Double.isNaN(trackingStart) ? 0.0 : drive - trackingStart;
+        double aligningTime = feed - drive;
+        double feedingTime = end - feed;
+
+        String key = "Auton/Shoot/" + name + "/";
+        SmartDashboard.putNumber(key + "Driving Time", drivingTime);
+        SmartDashboard.putNumber(key + "Tracking While Driving Time", trackingTime);
+        SmartDashboard.putNumber(key + "Aligning Time", aligningTime);
+        SmartDashboard.putNumber(key + "Feeding Time", feedingTime);
+        SmartDashboard.putBoolean(key + "Interrupted", interrupted);
+
+        if (timingLog == null) {
+            timingLog = new StringLogEntry(DataLogManager.getLog(), "Auton/Shoot/Timing");
+        }
+
+        timingLog.append(
+                String.format(
+                        "%s: driving %.2fs (tracking %.2fs), aligning %.2fs, feeding %.2fs%s",
+                        name,
+                        drivingTime,
+                        trackingTime,
+                        aligningTime,
+                        feedingTime,
+                        interrupted ? " [INTERRUPTED]" : ""));
+    }
+}
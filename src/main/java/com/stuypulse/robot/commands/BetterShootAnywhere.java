@@ -15,11 +15,14 @@ import com.stuypulse.robot.commands.conveyor.modes.ConveyorMode;
 import com.stuypulse.robot.constants.ShotMap;
 import com.stuypulse.robot.constants.Settings.Alignment;
 import com.stuypulse.robot.constants.Settings.Limelight;
+import com.stuypulse.robot.constants.Settings.Shooter.Solver;
 import com.stuypulse.robot.subsystems.Camera;
 import com.stuypulse.robot.subsystems.Conveyor;
 import com.stuypulse.robot.subsystems.Drivetrain;
 import com.stuypulse.robot.subsystems.Shooter;
+import com.stuypulse.robot.util.ShotSolver;
 
+import edu.wpi.first.wpilibj.smartdashboard.SmartDashboard;
 import edu.wpi.first.wpilibj2.command.CommandBase;
 
 public class BetterShootAnywhere extends CommandBase {
@@ -33,11 +36,15 @@ public class BetterShootAnywhere extends CommandBase {
     // angle control
     private final Controller angleController;
     private final IFuser angleError;
+    private double aimError;
 
     // distance control
     private final Controller distanceController;
     private final IFuser distance;
 
+    // where to aim and how fast to shoot while moving
+    private final ShotSolver.Solution shot;
+
     // determine when to switch between shooting and aligning
     private final BStream readyToShoot;
 
@@ -47,13 +54,15 @@ public class BetterShootAnywhere extends CommandBase {
         this.drivetrain = robot.drivetrain;
         this.shooter = robot.shooter;
 
+        this.shot = new ShotSolver.Solution();
+
         // find angle error
         angleError =
                 new IFuser(
                         Alignment.FUSION_FILTER,
-                        () -> camera.getXAngle()
-                                .add(ShotMap.getAngle(camera.getDistance()))
-                                .toDegrees(),
+                        () -> camera.getXAngle().toDegrees()
+                                + shot.yaw
+                                - drivetrain.getGyroAngleChangeSince(camera.getCaptureTimestamp()),
                         () -> drivetrain.getRawGyroAngle());
         
         // find fused distance
@@ -71,10 +80,7 @@ public class BetterShootAnywhere extends CommandBase {
         readyToShoot =
                 BStream.create(camera::hasAnyTarget)
                         .and(shooter::isReady)
-                        .and(
-                                () ->
-                                        Math.abs(drivetrain.getVelocity())
-                                                < Limelight.MAX_VELOCITY.get())
+                        .and(() -> getMiss() < Solver.MAX_MISS.get())
                         .and(() -> angleController.isDone(Limelight.MAX_ANGLE_ERROR.get()))
                         .and(() -> distanceController.isDone(Limelight.MAX_DISTANCE_ERROR.get()))
                         .filtered(new BDebounceRC.Rising(Limelight.DEBOUNCE_TIME));
@@ -87,32 +93,54 @@ public class BetterShootAnywhere extends CommandBase {
         drivetrain.setLowGear();
         shooter.retractHood();
 
-        angleError.initialize();
         distance.initialize();
+        updateShot();
+        angleError.initialize();
     }
 
     private double getTargetDistance() {
         return SLMath.clamp(distance.get(), Limelight.RING_DISTANCE.get(), Limelight.PAD_DISTANCE.get());
     }
 
+    private void updateShot() {
+        ShotSolver.solve(
+                ShotMap.TABLE.get(),
+                distance.get(),
+                camera.getXAngle().toDegrees(),
+                drivetrain.getVelocity(),
+                shot);
+    }
+
+    // how far the ball would miss by if it was shot right now
+    private double getMiss() {
+        return shot.getMiss(aimError);
+    }
+
     private double getSpeed() {
         return distanceController.update(getTargetDistance(), distance.get());
     }
 
     private double getTurn() {
-        return angleController.update(angleError.get());
+        return angleController.update(aimError);
     }
 
     @Override
     public void execute() {
+        updateShot();
+        aimError = angleError.get();
+
         drivetrain.arcadeDrive(getSpeed(), getTurn());
-        shooter.setShooterRPM(ShotMap.getRPM(distance.get()));
+        shooter.setShooterRPM(shot.rpm);
 
         if (readyToShoot.get()) {
             conveyor.setMode(ConveyorMode.SEMI_AUTO);
         } else {
             conveyor.setMode(ConveyorMode.DEFAULT);
         }
+
+        SmartDashboard.putNumber("Debug/BetterShootAnywhere/Lead", shot.lead);
+        SmartDashboard.putNumber("Debug/BetterShootAnywhere/Time Of Flight", shot.timeOfFlight);
+        SmartDashboard.putNumber("Debug/BetterShootAnywhere/Miss", getMiss());
     }
 
     @Override
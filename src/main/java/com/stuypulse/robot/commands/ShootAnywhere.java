@@ -6,7 +6,6 @@
 package com.stuypulse.robot.commands;
 
 import com.stuypulse.stuylib.control.Controller;
-import com.stuypulse.stuylib.math.Angle;
 import com.stuypulse.stuylib.streams.IFuser;
 import com.stuypulse.stuylib.streams.booleans.BStream;
 import com.stuypulse.stuylib.streams.booleans.filters.BDebounceRC;
@@ -49,10 +48,7 @@ public class ShootAnywhere extends CommandBase {
                         () ->
                                 robot.camera
                                         .getXAngle()
-                                        .add(
-                                                Angle.fromDegrees(
-                                                        ShotMap.DISTANCE_TO_YAW.interpolate(
-                                                                robot.camera.getDistance())))
+                                        .add(ShotMap.getAngle(robot.camera.getDistance()))
                                         .toDegrees(),
                         () -> drivetrain.getRawGyroAngle());
 
@@ -87,7 +83,7 @@ public class ShootAnywhere extends CommandBase {
     }
 
     private double getTargetRPM() {
-        return ShotMap.DISTANCE_TO_RPM.interpolate(distance.get());
+        return ShotMap.getRPM(distance.get());
     }
 
     @Override
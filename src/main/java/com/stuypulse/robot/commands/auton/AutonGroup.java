@@ -0,0 +1,130 @@
+/************************ PROJECT DORCAS ************************/
+/* Copyright (c) 2022 StuyPulse Robotics. All rights reserved.  */
+/* This work is licensed under the terms of the MIT license.    */
+/****************************************************************/
+
+package com.stuypulse.robot.commands.auton;
+
+import com.stuypulse.robot.util.AutonTimeline;
+import com.stuypulse.robot.util.AutonTimeline.Reason;
+
+import edu.wpi.first.wpilibj2.command.Command;
+import edu.wpi.first.wpilibj2.command.CommandGroupBase;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Runs commands one after another like a SequentialCommandGroup, but records each of them in an
+ * {@link AutonTimeline} so we can see how long every step of the auton took and why it ended.
+ *
+ * <p>Steps that should give up after some time should be wrapped in an {@link AutonTimeout}
+ * instead of using withTimeout(), so that the timeline knows they timed out.
+ */
+public abstract class AutonGroup extends CommandGroupBase {
+
+    private final List<Command> commands;
+    private final AutonTimeline timeline;
+
+    private int index;
+    private boolean runWhenDisabled;
+
+    public AutonGroup() {
+        // nested autons (like MobilityAuton.NoEncoders) are named after both classes
+        String name = getClass().getName();
+        name = name.substring(name.lastIndexOf('.') + 1).replace('$', '.');
+
+        this.commands = new ArrayList<>();
+        this.timeline = new AutonTimeline(name);
+
+        this.index = -1;
+        this.runWhenDisabled = true;
+    }
+
+    @Override
+    public final void addCommands(Command... commands) {
+        requireUngrouped(commands);
+
+        if (index != -1) {
+            throw new IllegalStateException(
+                    "Commands cannot be added to an auton while it is running!");
+        }
+
+        registerGroupedCommands(commands);
+
+        for (Command command : commands) {
+            this.commands.add(command);
+            m_requirements.addAll(command.getRequirements());
+            runWhenDisabled &= command.runsWhenDisabled();
+        }
+    }
+
+    private void startStep() {
+        Command command = commands.get(index);
+
+        timeline.startStep(command.getName());
+        command.initialize();
+    }
+
+    private void endStep(boolean interrupted) {
+        Command command = commands.get(index);
+        command.end(interrupted);
+
+        if (interrupted) {
+            timeline.endStep(Reason.INTERRUPTED);
+        } else if (command instanceof AutonTimeout && ((AutonTimeout) command).hasTimedOut()) {
+            timeline.endStep(Reason.TIMED_OUT);
+        } else {
+            timeline.endStep(Reason.FINISHED);
+        }
+    }
+
+    @Override
+    public final void initialize() {
+        index = 0;
+        timeline.start();
+
+        if (!commands.isEmpty()) {
+            startStep();
+        }
+    }
+
+    @Override
+    public final void execute() {
+        if (commands.isEmpty()) {
+            return;
+        }
+
+        Command command = commands.get(index);
+        command.execute();
+
+        if (command.isFinished()) {
+            endStep(false);
+            index++;
+
+            if (index < commands.size()) {
+                startStep();
+            }
+        }
+    }
+
+    @Override
+    public final void end(boolean interrupted) {
+        if (interrupted && !commands.isEmpty() && index > -1 && index < commands.size()) {
+            endStep(true);
+        }
+
+        index = -1;
+        timeline.finish(interrupted);
+    }
+
+    @Override
+    public final boolean isFinished() {
+        return index == commands.size();
+    }
+
+    @Override
+    public boolean runsWhenDisabled() {
+        return runWhenDisabled;
+    }
+}
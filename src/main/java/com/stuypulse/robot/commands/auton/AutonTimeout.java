@@ -0,0 +1,83 @@
+/************************ PROJECT DORCAS ************************/
+/* Copyright (c) 2022 StuyPulse Robotics. All rights reserved.  */
+/* This work is licensed under the terms of the MIT license.    */
+/****************************************************************/
+
+package com.stuypulse.robot.commands.auton;
+
+import edu.wpi.first.wpilibj.Timer;
+import edu.wpi.first.wpilibj2.command.Command;
+import edu.wpi.first.wpilibj2.command.CommandBase;
+import edu.wpi.first.wpilibj2.command.CommandGroupBase;
+
+/**
+ * Runs a command until it finishes or runs out of time, the same as withTimeout(), but remembers
+ * which one happened so that {@link AutonGroup} can tell if a step timed out.
+ */
+public class AutonTimeout extends CommandBase {
+
+    private final Command command;
+    private final double timeout;
+
+    private final Timer timer;
+    private boolean timedOut;
+
+    public AutonTimeout(Command command, double timeout) {
+        CommandGroupBase.requireUngrouped(command);
+        CommandGroupBase.registerGroupedCommands(command);
+
+        this.command = command;
+        this.timeout = timeout;
+
+        this.timer = new Timer();
+        this.timedOut = false;
+
+        m_requirements.addAll(command.getRequirements());
+    }
+
+    @Override
+    public void initialize() {
+        timedOut = false;
+
+        timer.reset();
+        timer.start();
+
+        command.initialize();
+    }
+
+    @Override
+    public void execute() {
+        command.execute();
+    }
+
+    @Override
+    public boolean isFinished() {
+        if (command.isFinished()) {
+            return true;
+        }
+
+        timedOut = timer.hasElapsed(timeout);
+        return timedOut;
+    }
+
+    @Override
+    public void end(boolean interrupted) {
+        // when it times out, the command did not get to finish
+        command.end(interrupted || timedOut);
+        timer.stop();
+    }
+
+    @Override
+    public boolean runsWhenDisabled() {
+        return command.runsWhenDisabled();
+    }
+
+    @Override
+    public String getName() {
+        return command.getName();
+    }
+
+    public boolean hasTimedOut() {
+        return timedOut;
+    }
+}
@@ -5,14 +5,12 @@
 
 package com.stuypulse.robot.commands.auton;
 
-import edu.wpi.first.wpilibj2.command.SequentialCommandGroup;
-
 /*-
  * This auton does nothing... it is used as a placeholder
  *
  * @author Sam Belliveau
  */
-public class DoNothingAuton extends SequentialCommandGroup {
+public class DoNothingAuton extends AutonGroup {
 
     public DoNothingAuton() {
         addCommands(
@@ -6,8 +6,7 @@
 package com.stuypulse.robot.commands.auton;
 
 import com.stuypulse.robot.RobotContainer;
-import com.stuypulse.robot.commands.conveyor.ConveyorShoot;
-import com.stuypulse.robot.commands.drivetrain.DrivetrainAlign;
+import com.stuypulse.robot.commands.AutonShoot;
 import com.stuypulse.robot.commands.drivetrain.DrivetrainDriveDistance;
 import com.stuypulse.robot.commands.drivetrain.DrivetrainRamsete;
 import com.stuypulse.robot.commands.intake.IntakeAcquireForever;
@@ -18,7 +17,6 @@ import com.stuypulse.robot.commands.shooter.ShooterRingShot;
 import com.stuypulse.robot.util.LEDColor;
 
 import edu.wpi.first.math.util.Units;
-import edu.wpi.first.wpilibj2.command.SequentialCommandGroup;
 import edu.wpi.first.wpilibj2.command.WaitCommand;
 
 /*-
@@ -32,13 +30,15 @@ import edu.wpi.first.wpilibj2.command.WaitCommand;
  * @author Samuel Chen(samchen1738@gmail.com)
  */
  
-public class FiveBallAuton extends SequentialCommandGroup {
+public class FiveBallAuton extends AutonGroup {
     // Time it takes for the shooter to reach the target speed
     private static final double SHOOTER_INITIALIZE_DELAY = 0.3;
     // Time it takes for the conveyor to give the shooter the ball
     private static final double CONVEYOR_TO_SHOOTER = 3.0;
     // Time we want to give the drivetrain to align
     private static final double DRIVETRAIN_ALIGN_TIME = 3.0;
+    // Most time to spend aligning and shooting after a path
+    private static final double SHOOT_TIMEOUT = DRIVETRAIN_ALIGN_TIME + CONVEYOR_TO_SHOOTER;
 
     private static final String FIVE_BALL_TO_SECOND_BALL = "FiveBallAuton/output/FiveBallAcquireSecondBall.wpilib.json";
     private static final String FIVE_BALL_TO_TERMINAL = "FiveBallAuton/output/FiveBallGetTerminalBalls.wpilib.json";
@@ -59,21 +59,15 @@ public class FiveBallAuton extends SequentialCommandGroup {
 
         // Tarmac to first ball
         addCommands(
-            new LEDSet(robot.leds, LEDColor.GREEN),
-            new DrivetrainRamsete(robot.drivetrain, FIVE_BALL_TO_SECOND_BALL)
-                    .robotRelative());
-        addCommands(
-        );
-        addCommands(
-            new LEDSet(robot.leds, LEDColor.GREEN.pulse()),
-            new DrivetrainAlign(robot.drivetrain, robot.camera)
-                    .withTimeout(DRIVETRAIN_ALIGN_TIME)
+            new AutonShoot(
+                    robot,
+                    "Second Ball",
+                    new DrivetrainRamsete(robot.drivetrain, FIVE_BALL_TO_SECOND_BALL)
+                            .robotRelative(),
+                    SHOOT_TIMEOUT,
+                    LEDColor.GREEN)
         );
 
-        addCommands(
-                new LEDSet(robot.leds, LEDColor.RAINBOW),
-                new ConveyorShoot(robot.conveyor).withTimeout(CONVEYOR_TO_SHOOTER));
-
         // First ball to terminal to RingShot
         addCommands(
                 new LEDSet(robot.leds, LEDColor.BLUE),
@@ -89,33 +83,23 @@ public class FiveBallAuton extends SequentialCommandGroup {
 
         // Return to Ring to shoot
         addCommands(
-                new LEDSet(robot.leds, LEDColor.PURPLE),
-                new DrivetrainRamsete(robot.drivetrain, FIVE_BALL_TERMINAL_TO_SHOOT)
-                        .fieldRelative());
-        addCommands(
-                new LEDSet(robot.leds, LEDColor.PURPLE.pulse()),
-                new DrivetrainAlign(robot.drivetrain, robot.camera)
-                        .withTimeout(DRIVETRAIN_ALIGN_TIME)
-        );
-
-        addCommands(
-                new LEDSet(robot.leds, LEDColor.RAINBOW),
-                new ConveyorShoot(robot.conveyor).withTimeout(CONVEYOR_TO_SHOOTER));
+                new AutonShoot(
+                        robot,
+                        "Terminal Balls",
+                        new DrivetrainRamsete(robot.drivetrain, FIVE_BALL_TERMINAL_TO_SHOOT)
+                                .fieldRelative(),
+                        SHOOT_TIMEOUT,
+                        LEDColor.PURPLE));
 
         // Pick up and shoot fifth ball
         addCommands(
-                new LEDSet(robot.leds, LEDColor.PINK),
-                new DrivetrainRamsete(robot.drivetrain, FIVE_BALL_TO_WALL_BALL)
-                        .fieldRelative());
-        addCommands(  
-                new LEDSet(robot.leds, LEDColor.PINK.pulse()),
-                new DrivetrainAlign(robot.drivetrain, robot.camera)
-                        .withTimeout(DRIVETRAIN_ALIGN_TIME)
-        );
-
-        addCommands(
-                new LEDSet(robot.leds, LEDColor.RAINBOW),
-                new ConveyorShoot(robot.conveyor).withTimeout(CONVEYOR_TO_SHOOTER));
+                new AutonShoot(
+                        robot,
+                        "Wall Ball",
+                        new DrivetrainRamsete(robot.drivetrain, FIVE_BALL_TO_WALL_BALL)
+                                .fieldRelative(),
+                        SHOOT_TIMEOUT,
+                        LEDColor.PINK));
 
         addCommands(new LEDSet(robot.leds, LEDColor.WHITE.pulse()));
     }
@@ -15,7 +15,6 @@ import com.stuypulse.robot.commands.leds.LEDSet;
 import com.stuypulse.robot.commands.shooter.ShooterRingShot;
 import com.stuypulse.robot.util.LEDColor;
 
-import edu.wpi.first.wpilibj2.command.SequentialCommandGroup;
 import edu.wpi.first.wpilibj2.command.WaitCommand;
 
 /*-
@@ -29,7 +28,7 @@ import edu.wpi.first.wpilibj2.command.WaitCommand;
  * @author Samuel Chen(samchen1738@gmail.com)
  */
 
-public class FourBallAuton extends SequentialCommandGroup {
+public class FourBallAuton extends AutonGroup {
     // Time it takes for the intake to go down
     private static final double INTAKE_FALL_DOWN = 0.2;
     // Time it takes for the shooter to reach the target speed
@@ -69,11 +68,11 @@ public class FourBallAuton extends SequentialCommandGroup {
 
         addCommands(
             new LEDSet(robot.leds, LEDColor.GREEN.pulse()),
-            new DrivetrainAlign(robot.drivetrain, robot.camera)
-                .withTimeout(DRIVETRAIN_ALIGN_TIME));
+            new AutonTimeout(
+                    new DrivetrainAlign(robot.drivetrain, robot.camera), DRIVETRAIN_ALIGN_TIME));
         addCommands(
             new LEDSet(robot.leds, LEDColor.RAINBOW),
-            new ConveyorShoot(robot.conveyor).withTimeout(CONVEYOR_TO_SHOOTER)
+            new AutonTimeout(new ConveyorShoot(robot.conveyor), CONVEYOR_TO_SHOOTER)
         );
 
         // First ball to terminal to RingShot
@@ -98,8 +97,8 @@ public class FourBallAuton extends SequentialCommandGroup {
     
         addCommands(
             new LEDSet(robot.leds, LEDColor.PURPLE.pulse()),
-            new DrivetrainAlign(robot.drivetrain, robot.camera)
-                    .withTimeout(DRIVETRAIN_ALIGN_TIME)
+            new AutonTimeout(
+                    new DrivetrainAlign(robot.drivetrain, robot.camera), DRIVETRAIN_ALIGN_TIME)
         );
 
         addCommands(
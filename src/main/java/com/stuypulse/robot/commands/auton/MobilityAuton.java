@@ -11,12 +11,11 @@ import com.stuypulse.robot.commands.drivetrain.DrivetrainDriveForever;
 import com.stuypulse.robot.commands.leds.LEDSet;
 import com.stuypulse.robot.util.LEDColor;
 
-import edu.wpi.first.wpilibj2.command.SequentialCommandGroup;
 import edu.wpi.first.wpilibj2.command.WaitCommand;
 
 public class MobilityAuton {
 
-    public static class NoEncoders extends SequentialCommandGroup {
+    public static class NoEncoders extends AutonGroup {
         private static final double START_DELAY = 1.0;
 
         public NoEncoders(RobotContainer robot) {
@@ -26,13 +25,13 @@ public class MobilityAuton {
 
             addCommands(
                     new LEDSet(robot.leds, LEDColor.GREEN),
-                    new DrivetrainDriveForever(robot.drivetrain, 0.3).withTimeout(3));
+                    new AutonTimeout(new DrivetrainDriveForever(robot.drivetrain, 0.3), 3));
 
             addCommands(new LEDSet(robot.leds, LEDColor.WHITE.pulse()));
         }
     }
 
-    public static class WithEncoders extends SequentialCommandGroup {
+    public static class WithEncoders extends AutonGroup {
         // Distance from start point to Ring (in meters)
         private static final double DISTANCE_TO_RING = 3.0;
         private static final double START_DELAY = 1.0;
@@ -15,7 +15,6 @@ import com.stuypulse.robot.commands.leds.LEDSet;
 import com.stuypulse.robot.commands.shooter.ShooterRingShot;
 import com.stuypulse.robot.util.LEDColor;
 
-import edu.wpi.first.wpilibj2.command.SequentialCommandGroup;
 import edu.wpi.first.wpilibj2.command.WaitCommand;
 
 /*-
@@ -29,7 +28,7 @@ import edu.wpi.first.wpilibj2.command.WaitCommand;
  * @author Samuel Chen(samchen1738@gmail.com)
  */
 
-public class TwoBallAuton extends SequentialCommandGroup {
+public class TwoBallAuton extends AutonGroup {
     // Initial delay for the auton
     private static final double START_DELAY = 1.0;
 
@@ -63,9 +62,9 @@ public class TwoBallAuton extends SequentialCommandGroup {
         addCommands(
                 new LEDSet(robot.leds, LEDColor.GREEN),
                 new DrivetrainRamsete(robot.drivetrain, START).robotRelative(),
-                new DrivetrainAlign(robot.drivetrain, robot.camera)
-                        .withTimeout(DRIVETRAIN_ALIGN_TIME),
-                new ConveyorShoot(robot.conveyor).withTimeout(CONVEYOR_TO_SHOOTER));
+                new AutonTimeout(
+                        new DrivetrainAlign(robot.drivetrain, robot.camera), DRIVETRAIN_ALIGN_TIME),
+                new AutonTimeout(new ConveyorShoot(robot.conveyor), CONVEYOR_TO_SHOOTER));
 
         addCommands(
                 new LEDSet(robot.leds, LEDColor.BLUE),
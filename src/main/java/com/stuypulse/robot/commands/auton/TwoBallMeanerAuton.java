@@ -17,7 +17,6 @@ import com.stuypulse.robot.commands.leds.LEDSet;
 import com.stuypulse.robot.commands.shooter.ShooterRingShot;
 import com.stuypulse.robot.util.LEDColor;
 
-import edu.wpi.first.wpilibj2.command.SequentialCommandGroup;
 import edu.wpi.first.wpilibj2.command.WaitCommand;
 
 /*-
@@ -26,7 +25,7 @@ import edu.wpi.first.wpilibj2.command.WaitCommand;
  * @author Shaurya Sen (shauryasen12@gmail.com)
  */
 
-public class TwoBallMeanerAuton extends SequentialCommandGroup {
+public class TwoBallMeanerAuton extends AutonGroup {
     // Time it takes for the shooter to reach the target speed
     private static final double SHOOTER_INITIALIZE_DELAY = 0.7;
     // Time it takes for the conveyor to give the shooter the ball
@@ -60,11 +59,11 @@ public class TwoBallMeanerAuton extends SequentialCommandGroup {
                         .robotRelative(),
 
                 new LEDSet(robot.leds, LEDColor.GREEN.pulse()),
-                new DrivetrainAlign(robot.drivetrain, robot.camera)
-                        .withTimeout(DRIVETRAIN_ALIGN_TIME),
+                new AutonTimeout(
+                        new DrivetrainAlign(robot.drivetrain, robot.camera), DRIVETRAIN_ALIGN_TIME),
 
                 new LEDSet(robot.leds, LEDColor.RAINBOW),
-                new ConveyorShoot(robot.conveyor).withTimeout(CONVEYOR_TO_SHOOTER)
+                new AutonTimeout(new ConveyorShoot(robot.conveyor), CONVEYOR_TO_SHOOTER)
         );
 
         // Get Wall Blue Ball
@@ -81,9 +80,10 @@ public class TwoBallMeanerAuton extends SequentialCommandGroup {
                 new DrivetrainRamsete(robot.drivetrain, SECOND_OPPONENT_BALL)
                         .fieldRelative(),
 
-                new IntakeDeacquireForever(robot.intake)
-                        .alongWith(new ConveyorForceEject(robot.conveyor))
-                        .withTimeout(INTAKE_DEACQUIRE_TIME)
+                new AutonTimeout(
+                        new IntakeDeacquireForever(robot.intake)
+                                .alongWith(new ConveyorForceEject(robot.conveyor)),
+                        INTAKE_DEACQUIRE_TIME)
         );
                 
         addCommands(
@@ -12,10 +12,9 @@ import com.stuypulse.robot.commands.leds.LEDSet;
 import com.stuypulse.robot.commands.shooter.ShooterRingShot;
 import com.stuypulse.robot.util.LEDColor;
 
-import edu.wpi.first.wpilibj2.command.SequentialCommandGroup;
 import edu.wpi.first.wpilibj2.command.WaitCommand;
 
-public class TwoBallOneMeanAuton extends SequentialCommandGroup {
+public class TwoBallOneMeanAuton extends AutonGroup {
 
     private static final double ROBOT_STARTUP = 1;
     private static final double DRIVETRAIN_ALIGN_TWO = 1;
@@ -43,8 +42,9 @@ public class TwoBallOneMeanAuton extends SequentialCommandGroup {
                 new LEDSet(robot.leds, LEDColor.GREEN),
                 new DrivetrainRamsete(robot.drivetrain, GET_FIRST_PATH)
                         .robotRelative(),
-                new DrivetrainAlign(robot.drivetrain, robot.camera).withTimeout(DRIVETRAIN_ALIGN_TWO),
-                new ConveyorShoot(robot.conveyor).withTimeout(SHOOT_TWO)
+                new AutonTimeout(
+                        new DrivetrainAlign(robot.drivetrain, robot.camera), DRIVETRAIN_ALIGN_TWO),
+                new AutonTimeout(new ConveyorShoot(robot.conveyor), SHOOT_TWO)
         );
 
         // get & discard opponent balls 
@@ -53,9 +53,10 @@ public class TwoBallOneMeanAuton extends SequentialCommandGroup {
             new DrivetrainRamsete(robot.drivetrain, GET_OPPONENT_PATH).fieldRelative(),
             new DrivetrainRamsete(robot.drivetrain, DISCARD_OPPONENT_PATH).fieldRelative(),
             
-            new IntakeDeacquireForever(robot.intake)
-                        .alongWith(new ConveyorForceEject(robot.conveyor))
-                        .withTimeout(INTAKE_DEACQUIRE_TIME)
+            new AutonTimeout(
+                    new IntakeDeacquireForever(robot.intake)
+                            .alongWith(new ConveyorForceEject(robot.conveyor)),
+                    INTAKE_DEACQUIRE_TIME)
         );
 
         // move for the start of teleop
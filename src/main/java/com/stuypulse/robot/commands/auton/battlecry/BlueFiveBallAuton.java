@@ -6,6 +6,8 @@
 package com.stuypulse.robot.commands.auton.battlecry;
 
 import com.stuypulse.robot.RobotContainer;
+import com.stuypulse.robot.commands.auton.AutonGroup;
+import com.stuypulse.robot.commands.auton.AutonTimeout;
 import com.stuypulse.robot.commands.conveyor.ConveyorShoot;
 import com.stuypulse.robot.commands.drivetrain.DrivetrainAlign;
 import com.stuypulse.robot.commands.drivetrain.DrivetrainDriveDistance;
@@ -17,7 +19,6 @@ import com.stuypulse.robot.commands.shooter.ShooterRingShot;
 import com.stuypulse.robot.util.LEDColor;
 
 import edu.wpi.first.math.util.Units;
-import edu.wpi.first.wpilibj2.command.SequentialCommandGroup;
 import edu.wpi.first.wpilibj2.command.WaitCommand;
 
 /*-
@@ -31,7 +32,7 @@ import edu.wpi.first.wpilibj2.command.WaitCommand;
  * @author Samuel Chen(samchen1738@gmail.com)
  */
  
-public class BlueFiveBallAuton extends SequentialCommandGroup {
+public class BlueFiveBallAuton extends AutonGroup {
     // Time it takes for the shooter to reach the target speed
     private static final double SHOOTER_INITIALIZE_DELAY = 0.3;
     // Time it takes for the conveyor to give the shooter the ball
@@ -65,13 +66,13 @@ public class BlueFiveBallAuton extends SequentialCommandGroup {
         );
         addCommands(
             new LEDSet(robot.leds, LEDColor.GREEN.pulse()),
-            new DrivetrainAlign(robot.drivetrain, robot.camera)
-                    .withTimeout(DRIVETRAIN_ALIGN_TIME)
+            new AutonTimeout(
+                    new DrivetrainAlign(robot.drivetrain, robot.camera), DRIVETRAIN_ALIGN_TIME)
         );
 
         addCommands(
                 new LEDSet(robot.leds, LEDColor.RAINBOW),
-                new ConveyorShoot(robot.conveyor).withTimeout(CONVEYOR_TO_SHOOTER));
+                new AutonTimeout(new ConveyorShoot(robot.conveyor), CONVEYOR_TO_SHOOTER));
 
         // First ball to terminal to RingShot
         addCommands(
@@ -92,13 +93,13 @@ public class BlueFiveBallAuton extends SequentialCommandGroup {
                         .fieldRelative());
         addCommands(
                 new LEDSet(robot.leds, LEDColor.PURPLE.pulse()),
-                new DrivetrainAlign(robot.drivetrain, robot.camera)
-                        .withTimeout(DRIVETRAIN_ALIGN_TIME)
+                new AutonTimeout(
+                        new DrivetrainAlign(robot.drivetrain, robot.camera), DRIVETRAIN_ALIGN_TIME)
         );
 
         addCommands(
                 new LEDSet(robot.leds, LEDColor.RAINBOW),
-                new ConveyorShoot(robot.conveyor).withTimeout(CONVEYOR_TO_SHOOTER));
+                new AutonTimeout(new ConveyorShoot(robot.conveyor), CONVEYOR_TO_SHOOTER));
 
         // Pick up and shoot fifth ball
         addCommands(
@@ -107,13 +108,13 @@ public class BlueFiveBallAuton extends SequentialCommandGroup {
                         .fieldRelative());
         addCommands(  
                 new LEDSet(robot.leds, LEDColor.PINK.pulse()),
-                new DrivetrainAlign(robot.drivetrain, robot.camera)
-                        .withTimeout(DRIVETRAIN_ALIGN_TIME)
+                new AutonTimeout(
+                        new DrivetrainAlign(robot.drivetrain, robot.camera), DRIVETRAIN_ALIGN_TIME)
         );
 
         addCommands(
                 new LEDSet(robot.leds, LEDColor.RAINBOW),
-                new ConveyorShoot(robot.conveyor).withTimeout(CONVEYOR_TO_SHOOTER));
+                new AutonTimeout(new ConveyorShoot(robot.conveyor), CONVEYOR_TO_SHOOTER));
 
         addCommands(new LEDSet(robot.leds, LEDColor.WHITE.pulse()));
     }
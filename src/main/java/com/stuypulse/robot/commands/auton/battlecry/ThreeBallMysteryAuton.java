@@ -6,6 +6,8 @@
 package com.stuypulse.robot.commands.auton.battlecry;
 
 import com.stuypulse.robot.RobotContainer;
+import com.stuypulse.robot.commands.auton.AutonGroup;
+import com.stuypulse.robot.commands.auton.AutonTimeout;
 import com.stuypulse.robot.commands.conveyor.ConveyorShoot;
 import com.stuypulse.robot.commands.drivetrain.DrivetrainAlign;
 import com.stuypulse.robot.commands.drivetrain.DrivetrainRamsete;
@@ -15,10 +17,9 @@ import com.stuypulse.robot.commands.leds.LEDSet;
 import com.stuypulse.robot.commands.shooter.ShooterRingShot;
 import com.stuypulse.robot.util.LEDColor;
 
-import edu.wpi.first.wpilibj2.command.SequentialCommandGroup;
 import edu.wpi.first.wpilibj2.command.WaitCommand;
 
-public class ThreeBallMysteryAuton extends SequentialCommandGroup {
+public class ThreeBallMysteryAuton extends AutonGroup {
     // Initial delay for the auton
     private static final double START_DELAY = 1.0;
 
@@ -54,16 +55,16 @@ public class ThreeBallMysteryAuton extends SequentialCommandGroup {
         addCommands(
                 new LEDSet(robot.leds, LEDColor.GREEN),
                 new DrivetrainRamsete(robot.drivetrain, START).robotRelative(),
-                new DrivetrainAlign(robot.drivetrain, robot.camera)
-                        .withTimeout(DRIVETRAIN_ALIGN_TIME),
-                new ConveyorShoot(robot.conveyor).withTimeout(CONVEYOR_TO_SHOOTER));
+                new AutonTimeout(
+                        new DrivetrainAlign(robot.drivetrain, robot.camera), DRIVETRAIN_ALIGN_TIME),
+                new AutonTimeout(new ConveyorShoot(robot.conveyor), CONVEYOR_TO_SHOOTER));
 
         addCommands(
                 new LEDSet(robot.leds, LEDColor.PURPLE),
                 new DrivetrainRamsete(robot.drivetrain, GET_MYSTERY_BALL).fieldRelative(),
-                new DrivetrainAlign(robot.drivetrain, robot.camera)
-                        .withTimeout(DRIVETRAIN_ALIGN_TIME),
-                new ConveyorShoot(robot.conveyor).withTimeout(CONVEYOR_TO_SHOOTER)
+                new AutonTimeout(
+                        new DrivetrainAlign(robot.drivetrain, robot.camera), DRIVETRAIN_ALIGN_TIME),
+                new AutonTimeout(new ConveyorShoot(robot.conveyor), CONVEYOR_TO_SHOOTER)
         );
 
         addCommands(
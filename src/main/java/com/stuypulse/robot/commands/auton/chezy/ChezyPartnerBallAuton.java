@@ -6,6 +6,8 @@
 package com.stuypulse.robot.commands.auton.chezy;
 
 import com.stuypulse.robot.RobotContainer;
+import com.stuypulse.robot.commands.auton.AutonGroup;
+import com.stuypulse.robot.commands.auton.AutonTimeout;
 import com.stuypulse.robot.commands.conveyor.ConveyorForceEject;
 import com.stuypulse.robot.commands.conveyor.ConveyorShoot;
 import com.stuypulse.robot.commands.conveyor.ConveyorShootTop;
@@ -20,7 +22,6 @@ import com.stuypulse.robot.commands.shooter.ShooterFenderShot;
 import com.stuypulse.robot.commands.shooter.ShooterRingShot;
 import com.stuypulse.robot.util.LEDColor;
 
-import edu.wpi.first.wpilibj2.command.SequentialCommandGroup;
 import edu.wpi.first.wpilibj2.command.WaitCommand;
 
 /*-
@@ -28,7 +29,7 @@ import edu.wpi.first.wpilibj2.command.WaitCommand;
  * @author Shaurya Sen
  */
  
-public class ChezyPartnerBallAuton extends SequentialCommandGroup {
+public class ChezyPartnerBallAuton extends AutonGroup {
     // Time it takes for the shooter to reach the target speed
     private static final double SHOOTER_INITIALIZE_DELAY = 1.0;
     // Time it takes for shooter to go from Fender to Ring shot speed
@@ -67,9 +68,9 @@ public class ChezyPartnerBallAuton extends SequentialCommandGroup {
         // shoot top ball
         addCommands(
             new LEDSet(robot.leds, LEDColor.GREEN),
-            new ConveyorShootTop(robot.conveyor).withTimeout(CONVEYOR_TO_SHOOTER),
+            new AutonTimeout(new ConveyorShootTop(robot.conveyor), CONVEYOR_TO_SHOOTER),
             new WaitCommand(ACQUIRE_PARTNER_BALL_TIME).withInterrupt(robot.conveyor::isFull),
-            new ConveyorShootTop(robot.conveyor).withTimeout(CONVEYOR_TO_SHOOTER),
+            new AutonTimeout(new ConveyorShootTop(robot.conveyor), CONVEYOR_TO_SHOOTER),
             new WaitCommand(PARTNER_MOVE_BACK_TIME));
 
         // enter ring mode
@@ -85,10 +86,10 @@ public class ChezyPartnerBallAuton extends SequentialCommandGroup {
         // align 
         addCommands(
             new LEDSet(robot.leds, LEDColor.GREEN.pulse()),
-            new DrivetrainAlign(robot.drivetrain, robot.camera)
-                    .withTimeout(DRIVETRAIN_ALIGN_TIME),
+            new AutonTimeout(
+                    new DrivetrainAlign(robot.drivetrain, robot.camera), DRIVETRAIN_ALIGN_TIME),
             new LEDSet(robot.leds, LEDColor.RAINBOW),
-            new ConveyorShoot(robot.conveyor).withTimeout(RING_SHOT_DELAY)
+            new AutonTimeout(new ConveyorShoot(robot.conveyor), RING_SHOT_DELAY)
         );
         
         addCommands(
@@ -100,9 +101,10 @@ public class ChezyPartnerBallAuton extends SequentialCommandGroup {
             new LEDSet(robot.leds, LEDColor.RAINBOW),
             new DrivetrainRamsete(robot.drivetrain, PARTNER_BALL_EJECT),
 
-            new IntakeDeacquire(robot.intake)
-                    .alongWith(new ConveyorForceEject(robot.conveyor))
-                    .withTimeout(INTAKE_DEACQUIRE_TIME)
+            new AutonTimeout(
+                    new IntakeDeacquire(robot.intake)
+                            .alongWith(new ConveyorForceEject(robot.conveyor)),
+                    INTAKE_DEACQUIRE_TIME)
         );
 
         addCommands(new LEDSet(robot.leds, LEDColor.WHITE.pulse()));
@@ -6,6 +6,8 @@
 package com.stuypulse.robot.commands.auton.chezy;
 
 import com.stuypulse.robot.RobotContainer;
+import com.stuypulse.robot.commands.auton.AutonGroup;
+import com.stuypulse.robot.commands.auton.AutonTimeout;
 import com.stuypulse.robot.commands.conveyor.ConveyorShoot;
 import com.stuypulse.robot.commands.drivetrain.DrivetrainAlign;
 import com.stuypulse.robot.commands.drivetrain.DrivetrainDriveDistance;
@@ -19,7 +21,6 @@ import com.stuypulse.robot.commands.shooter.ShooterRingShot;
 import com.stuypulse.robot.util.LEDColor;
 
 import edu.wpi.first.math.util.Units;
-import edu.wpi.first.wpilibj2.command.SequentialCommandGroup;
 import edu.wpi.first.wpilibj2.command.WaitCommand;
 
 /*-
@@ -33,7 +34,7 @@ import edu.wpi.first.wpilibj2.command.WaitCommand;
  * @author Samuel Chen(samchen1738@gmail.com)
  */
  
-public class SixBallAuton extends SequentialCommandGroup {
+public class SixBallAuton extends AutonGroup {
     // Time it takes for the shooter to reach the target speed
     private static final double SHOOTER_INITIALIZE_DELAY = 0.3;
     // Time it takes for the conveyor to give the shooter the ball
@@ -67,13 +68,13 @@ public class SixBallAuton extends SequentialCommandGroup {
         addCommands(
             new IntakeEnableSafety(robot.intake),
             new LEDSet(robot.leds, LEDColor.GREEN.pulse()),
-            new DrivetrainAlign(robot.drivetrain, robot.camera)
-                    .withTimeout(DRIVETRAIN_ALIGN_TIME)
+            new AutonTimeout(
+                    new DrivetrainAlign(robot.drivetrain, robot.camera), DRIVETRAIN_ALIGN_TIME)
         );
 
         addCommands(
                 new LEDSet(robot.leds, LEDColor.RAINBOW),
-                new ConveyorShoot(robot.conveyor).withTimeout(15));
+                new AutonTimeout(new ConveyorShoot(robot.conveyor), 15));
 
         // First ball to terminal to RingShot
         addCommands(
@@ -95,13 +96,13 @@ public class SixBallAuton extends SequentialCommandGroup {
                         .fieldRelative());
         addCommands(
                 new LEDSet(robot.leds, LEDColor.PURPLE.pulse()),
-                new DrivetrainAlign(robot.drivetrain, robot.camera)
-                        .withTimeout(DRIVETRAIN_ALIGN_TIME)
+                new AutonTimeout(
+                        new DrivetrainAlign(robot.drivetrain, robot.camera), DRIVETRAIN_ALIGN_TIME)
         );
 
         addCommands(
                 new LEDSet(robot.leds, LEDColor.RAINBOW),
-                new ConveyorShoot(robot.conveyor).withTimeout(CONVEYOR_TO_SHOOTER));
+                new AutonTimeout(new ConveyorShoot(robot.conveyor), CONVEYOR_TO_SHOOTER));
 
         // Pick up and shoot fifth ball
         addCommands(
@@ -110,13 +111,13 @@ public class SixBallAuton extends SequentialCommandGroup {
                         .fieldRelative());
         addCommands(  
                 new LEDSet(robot.leds, LEDColor.PINK.pulse()),
-                new DrivetrainAlign(robot.drivetrain, robot.camera)
-                        .withTimeout(DRIVETRAIN_ALIGN_TIME)
+                new AutonTimeout(
+                        new DrivetrainAlign(robot.drivetrain, robot.camera), DRIVETRAIN_ALIGN_TIME)
         );
 
         addCommands(
                 new LEDSet(robot.leds, LEDColor.RAINBOW),
-                new ConveyorShoot(robot.conveyor).withTimeout(CONVEYOR_TO_SHOOTER));
+                new AutonTimeout(new ConveyorShoot(robot.conveyor), CONVEYOR_TO_SHOOTER));
 
         addCommands(new LEDSet(robot.leds, LEDColor.WHITE.pulse()));
     }
@@ -6,6 +6,8 @@
 package com.stuypulse.robot.commands.auton.chezy;
 
 import com.stuypulse.robot.RobotContainer;
+import com.stuypulse.robot.commands.auton.AutonGroup;
+import com.stuypulse.robot.commands.auton.AutonTimeout;
 import com.stuypulse.robot.commands.conveyor.ConveyorShoot;
 import com.stuypulse.robot.commands.drivetrain.DrivetrainAlign;
 import com.stuypulse.robot.commands.drivetrain.DrivetrainRamsete;
@@ -17,7 +19,6 @@ import com.stuypulse.robot.commands.leds.LEDSet;
 import com.stuypulse.robot.commands.shooter.ShooterRingShot;
 import com.stuypulse.robot.util.LEDColor;
 
-import edu.wpi.first.wpilibj2.command.SequentialCommandGroup;
 import edu.wpi.first.wpilibj2.command.WaitCommand;
 
 /*-
@@ -31,7 +32,7 @@ import edu.wpi.first.wpilibj2.command.WaitCommand;
  * @author Samuel Chen(samchen1738@gmail.com)
  */
 
-public class ThreeBallAuton extends SequentialCommandGroup {
+public class ThreeBallAuton extends AutonGroup {
     // Initial delay for the auton
     private static final double START_DELAY = 1.0;
 
@@ -67,9 +68,9 @@ public class ThreeBallAuton extends SequentialCommandGroup {
                 new LEDSet(robot.leds, LEDColor.GREEN),
                 new DrivetrainRamsete(robot.drivetrain, START).robotRelative(),
                 new IntakeEnableSafety(robot.intake),
-                new DrivetrainAlign(robot.drivetrain, robot.camera)
-                        .withTimeout(DRIVETRAIN_ALIGN_TIME),
-                new ConveyorShoot(robot.conveyor).withTimeout(CONVEYOR_TO_SHOOTER));
+                new AutonTimeout(
+                        new DrivetrainAlign(robot.drivetrain, robot.camera), DRIVETRAIN_ALIGN_TIME),
+                new AutonTimeout(new ConveyorShoot(robot.conveyor), CONVEYOR_TO_SHOOTER));
 
         addCommands(
                 new LEDSet(robot.leds, LEDColor.BLUE),
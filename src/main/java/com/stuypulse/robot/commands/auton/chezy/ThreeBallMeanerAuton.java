@@ -6,6 +6,8 @@
 package com.stuypulse.robot.commands.auton.chezy;
 
 import com.stuypulse.robot.RobotContainer;
+import com.stuypulse.robot.commands.auton.AutonGroup;
+import com.stuypulse.robot.commands.auton.AutonTimeout;
 import com.stuypulse.robot.commands.conveyor.ConveyorForceEject;
 import com.stuypulse.robot.commands.conveyor.ConveyorShoot;
 import com.stuypulse.robot.commands.drivetrain.DrivetrainAlign;
@@ -19,7 +21,6 @@ import com.stuypulse.robot.commands.leds.LEDSet;
 import com.stuypulse.robot.commands.shooter.ShooterRingShot;
 import com.stuypulse.robot.util.LEDColor;
 
-import edu.wpi.first.wpilibj2.command.SequentialCommandGroup;
 import edu.wpi.first.wpilibj2.command.WaitCommand;
 
 /*-
@@ -28,7 +29,7 @@ import edu.wpi.first.wpilibj2.command.WaitCommand;
  * @author Shaurya Sen (shauryasen12@gmail.com)
  */
 
-public class ThreeBallMeanerAuton extends SequentialCommandGroup {
+public class ThreeBallMeanerAuton extends AutonGroup {
     // Time it takes for the shooter to reach the target speed
     private static final double SHOOTER_INITIALIZE_DELAY = 0.7;
     // Time it takes for the conveyor to give the shooter the ball
@@ -64,11 +65,11 @@ public class ThreeBallMeanerAuton extends SequentialCommandGroup {
                 new IntakeEnableSafety(robot.intake),
 
                 new LEDSet(robot.leds, LEDColor.GREEN.pulse()),
-                new DrivetrainAlign(robot.drivetrain, robot.camera)
-                        .withTimeout(DRIVETRAIN_ALIGN_TIME),
+                new AutonTimeout(
+                        new DrivetrainAlign(robot.drivetrain, robot.camera), DRIVETRAIN_ALIGN_TIME),
 
                 new LEDSet(robot.leds, LEDColor.RAINBOW),
-                new ConveyorShoot(robot.conveyor).withTimeout(CONVEYOR_TO_SHOOTER)
+                new AutonTimeout(new ConveyorShoot(robot.conveyor), CONVEYOR_TO_SHOOTER)
         );
 
         // Get Wall Blue Ball
@@ -85,9 +86,10 @@ public class ThreeBallMeanerAuton extends SequentialCommandGroup {
                 new DrivetrainRamsete(robot.drivetrain, SECOND_OPPONENT_BALL)
                         .fieldRelative(),
 
-                new IntakeDeacquireForever(robot.intake)
-                        .alongWith(new ConveyorForceEject(robot.conveyor))
-                        .withTimeout(INTAKE_DEACQUIRE_TIME)
+                new AutonTimeout(
+                        new IntakeDeacquireForever(robot.intake)
+                                .alongWith(new ConveyorForceEject(robot.conveyor)),
+                        INTAKE_DEACQUIRE_TIME)
         );
                 
         addCommands(
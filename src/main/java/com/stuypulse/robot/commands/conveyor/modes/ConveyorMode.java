@@ -7,48 +7,58 @@ package com.stuypulse.robot.commands.conveyor.modes;
 
 import com.stuypulse.robot.subsystems.Conveyor;
 import com.stuypulse.robot.subsystems.Conveyor.Direction;
+import com.stuypulse.robot.subsystems.ConveyorState;
+import com.stuypulse.robot.subsystems.ConveyorState.Slot;
 
 import java.util.function.Consumer;
 
 public enum ConveyorMode {
     INDEX(
             (Conveyor conveyor) -> {
+                ConveyorState state = conveyor.getState();
+                ConveyorState.Ball gandalf = state.getBall(Slot.GANDALF);
+
                 /*** Gandalf logic ***/
 
                 // Eject if you have wrong ball
-                if (conveyor.hasOpponentBall()) {
+                if (conveyor.isOpponentBall(gandalf)) {
                     conveyor.setGandalf(Direction.REVERSE);
                 }
 
                 // Stop if you already have ball
-                else if (conveyor.hasTopBeltBall()) {
+                else if (state.has(Slot.TOP_BELT)) {
                     conveyor.setGandalf(Direction.STOPPED);
                 }
 
+                // Finish pushing a ball up, but hold the next one until it gets there
+                else if (state.has(Slot.TRANSFER)) {
+                    conveyor.setGandalf(gandalf == null ? Direction.FORWARD : Direction.STOPPED);
+                }
+
                 // Accept Alliance Ball if no ball on top
-                else if (conveyor.hasAllianceBall()) {
+                else if (conveyor.isAllianceBall(gandalf)) {
                     conveyor.setGandalf(Direction.FORWARD);
                 }
 
-                // If you were ejecting and there is no longer a ball, stop
-                else if (conveyor.getGandalfDirection() == Direction.REVERSE) {
+                // Stop once there is nothing left to move
+                else if (gandalf == null || conveyor.getGandalfDirection() == Direction.REVERSE) {
                     conveyor.setGandalf(Direction.STOPPED);
                 }
 
                 /*** Top belt logic ***/
 
                 // Stop if you already have ball
-                if (conveyor.hasTopBeltBall()) {
+                if (state.has(Slot.TOP_BELT)) {
                     conveyor.setTopBelt(Direction.STOPPED);
                 }
 
-                // Run upwards if you have an alliance ball
-                else if (conveyor.hasAllianceBall()) {
+                // Run upwards if an alliance ball is on its way
+                else if (state.has(Slot.TRANSFER) || conveyor.isAllianceBall(gandalf)) {
                     conveyor.setTopBelt(Direction.FORWARD);
                 }
 
-                // Stop Ejecting Once Done
-                else if (conveyor.getTopBeltDirection() == Direction.REVERSE) {
+                // Stop once there is nothing left to move
+                else {
                     conveyor.setTopBelt(Direction.STOPPED);
                 }
             }),
@@ -83,7 +93,9 @@ public enum ConveyorMode {
 
     SEMI_AUTO(
             (Conveyor conveyor) -> {
-                boolean shouldStop = conveyor.hasNewBall();
+                // hold the ball on the top belt until the flywheel is ready for it
+                boolean shouldStop =
+                        conveyor.getState().has(Slot.TOP_BELT) && !conveyor.isFeedReady();
                 conveyor.setTopBelt(shouldStop ? Direction.STOPPED : Direction.FORWARD_SLOW);
                 conveyor.setGandalf(shouldStop ? Direction.STOPPED : Direction.FORWARD);
             }),
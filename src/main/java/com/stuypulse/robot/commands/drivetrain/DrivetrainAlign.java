@@ -28,8 +28,10 @@ import edu.wpi.first.wpilibj2.command.CommandBase;
 public class DrivetrainAlign extends CommandBase {
 
     private final Drivetrain drivetrain;
+    private final Camera camera;
 
     private final BStream finished;
+    private boolean tracking;
 
     private IFilter speedAdjFilter;
 
@@ -41,6 +43,7 @@ public class DrivetrainAlign extends CommandBase {
 
     public DrivetrainAlign(Drivetrain drivetrain, Camera camera) {
         this.drivetrain = drivetrain;
+        this.camera = camera;
 
         // find errors
         angleError =
@@ -48,8 +51,10 @@ public class DrivetrainAlign extends CommandBase {
                         Alignment.FUSION_FILTER,
                         () ->
                                 camera.getXAngle()
-                                        .add(Angle.fromDegrees(Limelight.RING_YAW.get()))
-                                        .toDegrees(),
+                                                .add(Angle.fromDegrees(Limelight.RING_YAW.get()))
+                                                .toDegrees()
+                                        - drivetrain.getGyroAngleChangeSince(
+                                                camera.getCaptureTimestamp()),
                         () -> drivetrain.getRawGyroAngle());
 
         distanceError =
@@ -74,17 +79,34 @@ public class DrivetrainAlign extends CommandBase {
                         .and(() -> distanceController.isDone(Limelight.MAX_DISTANCE_ERROR.get()))
                         .filtered(new BDebounceRC.Rising(Limelight.DEBOUNCE_TIME));
 
+        tracking = false;
+
         addRequirements(drivetrain);
     }
 
-    @Override
-    public void initialize() {
-        drivetrain.setLowGear();
-
+    // Starts filtering the errors without driving, so they have settled by the time we align
+    public void startTracking() {
         speedAdjFilter = new LowPassFilter(Alignment.SPEED_ADJ_FILTER);
 
         angleError.initialize();
         distanceError.initialize();
+
+        tracking = true;
+    }
+
+    // Updates the filtered errors while tracking, for when something else is driving
+    public void update() {
+        angleError.get();
+        distanceError.get();
+    }
+
+    @Override
+    public void initialize() {
+        drivetrain.setLowGear();
+
+        if (!tracking) {
+            startTracking();
+        }
     }
 
     private double getSpeedAdjustment() {
@@ -111,6 +133,18 @@ public class DrivetrainAlign extends CommandBase {
         return finished.get();
     }
 
+    @Override
+    public void end(boolean interrupted) {
+        tracking = false;
+    }
+
+    // If the errors are in tolerance right now, without waiting for the robot to settle
+    public boolean isAligned() {
+        return camera.hasTarget()
+                && Math.abs(angleError.get()) < Limelight.MAX_ANGLE_ERROR.get()
+                && Math.abs(distanceError.get()) < Limelight.MAX_DISTANCE_ERROR.get();
+    }
+
     public Command thenShoot(Conveyor conveyor) {
         return new ThenShoot(this, conveyor, ConveyorMode.SHOOT);
     }
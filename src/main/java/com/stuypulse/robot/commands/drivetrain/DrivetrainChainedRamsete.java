@@ -0,0 +1,151 @@
+/************************ PROJECT DORCAS ************************/
+/* Copyright (c) 2022 StuyPulse Robotics. All rights reserved.  */
+/* This work is licensed under the terms of the MIT license.    */
+/****************************************************************/
+
+package com.stuypulse.robot.commands.drivetrain;
+
+import com.stuypulse.robot.subsystems.Drivetrain;
+import com.stuypulse.robot.util.ChainedTrajectory;
+import com.stuypulse.robot.util.SampledTrajectory;
+
+import edu.wpi.first.wpilibj2.command.Command;
+import edu.wpi.first.wpilibj2.command.CommandGroupBase;
+import edu.wpi.first.wpilibj2.command.Subsystem;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/*-
+ * Follows a chained trajectory without stopping between its segments, and runs
+ * commands (like the intake or shooter) when the robot reaches markers along the way.
+ *
+ * Marker commands are run by this command instead of being scheduled, the same way a
+ * command group runs its commands, so they can use subsystems the rest of the auton
+ * also uses. Any marker command that is still running when the path ends is interrupted.
+ */
+public class DrivetrainChainedRamsete extends DrivetrainSampledRamsete {
+
+    private static class Marker {
+        private final double time;
+        private final Command command;
+
+        private boolean started;
+        private boolean running;
+
+        public Marker(double time, Command command) {
+            this.time = time;
+            this.command = command;
+        }
+    }
+
+    private final ChainedTrajectory chain;
+    private final List<Marker> markers;
+
+    public DrivetrainChainedRamsete(Drivetrain drivetrain, ChainedTrajectory chain) {
+        super(drivetrain, new SampledTrajectory(chain.getTrajectory()));
+
+        this.chain = chain;
+        this.markers = new ArrayList<>();
+    }
+
+    public DrivetrainChainedRamsete(Drivetrain drivetrain, String... paths) {
+        this(drivetrain, new ChainedTrajectory(paths));
+    }
+
+    // [DEFAULT] Resets the drivetrain to the begining of the trajectory
+    @Override
+    public DrivetrainChainedRamsete robotRelative() {
+        super.robotRelative();
+        return this;
+    }
+
+    // Make the trajectory relative to the field
+    @Override
+    public DrivetrainChainedRamsete fieldRelative() {
+        super.fieldRelative();
+        return this;
+    }
+
+    // Runs a command a number of seconds after the path starts
+    public DrivetrainChainedRamsete atTime(double time, Command command) {
+        CommandGroupBase.requireUngrouped(command);
+        CommandGroupBase.registerGroupedCommands(command);
+
+        markers.add(new Marker(Math.min(time, chain.getTotalTime()), command));
+        addRequirements(command.getRequirements().toArray(new Subsystem[0]));
+        return this;
+    }
+
+    // Runs a command when the robot reaches the start of a segment
+    public DrivetrainChainedRamsete atSegment(int segment, Command command) {
+        return atTime(chain.getSegmentTime(segment), command);
+    }
+
+    // Runs a command a number of seconds before the path ends
+    public DrivetrainChainedRamsete beforeEnd(double time, Command command) {
+        return atTime(Math.max(0.0, chain.getTotalTime() - time), command);
+    }
+
+    public ChainedTrajectory getChain() {
+        return chain;
+    }
+
+    @Override
+    public void initialize() {
+        super.initialize();
+
+        for (Marker marker : markers) {
+            marker.started = false;
+            marker.running = false;
+        }
+    }
+
+    @Override
+    public void execute() {
+        super.execute();
+
+        double time = getTime();
+
+        for (Marker marker : markers) {
+            if (!marker.started && time >= marker.time) {
+                marker.command.initialize();
+                marker.started = true;
+                marker.running = true;
+            }
+
+            if (marker.running) {
+                marker.command.execute();
+
+                if (marker.command.isFinished()) {
+                    marker.command.end(false);
+                    marker.running = false;
+                }
+            }
+        }
+    }
+
+    @Override
+    public boolean isFinished() {
+        // markers at the very end of the path still get to start
+        for (Marker marker : markers) {
+            if (!marker.started) {
+                return false;
+            }
+        }
+
+        return super.isFinished();
+    }
+
+    @Override
+    public void end(boolean interrupted) {
+        super.end(interrupted);
+
+        for (Marker marker : markers) {
+            if (marker.running) {
+                marker.command.end(true);
+                marker.running = false;
+            }
+        }
+    }
+}
@@ -40,8 +40,10 @@ public class DrivetrainPadAlign extends CommandBase {
                         Alignment.FUSION_FILTER,
                         () ->
                                 camera.getXAngle()
-                                        .add(Angle.fromDegrees(Limelight.PAD_YAW.get()))
-                                        .toDegrees(),
+                                                .add(Angle.fromDegrees(Limelight.PAD_YAW.get()))
+                                                .toDegrees()
+                                        - drivetrain.getGyroAngleChangeSince(
+                                                camera.getCaptureTimestamp()),
                         () -> drivetrain.getRawGyroAngle());
 
         // handle errors
@@ -48,8 +48,10 @@ public class DrivetrainPadAlignV2 extends CommandBase {
                         Alignment.FUSION_FILTER,
                         () ->
                                 camera.getXAngle()
-                                        .add(Angle.fromDegrees(Limelight.PAD_YAW.get()))
-                                        .toDegrees(),
+                                                .add(Angle.fromDegrees(Limelight.PAD_YAW.get()))
+                                                .toDegrees()
+                                        - drivetrain.getGyroAngleChangeSince(
+                                                camera.getCaptureTimestamp()),
                         () -> drivetrain.getRawGyroAngle());
 
         distanceError =
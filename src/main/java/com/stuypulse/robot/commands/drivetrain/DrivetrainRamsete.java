@@ -5,13 +5,17 @@
 
 package com.stuypulse.robot.commands.drivetrain;
 
+import com.stuypulse.robot.constants.Settings;
 import com.stuypulse.robot.constants.Settings.Drivetrain.Motion;
 import com.stuypulse.robot.subsystems.Drivetrain;
 import com.stuypulse.robot.util.TrajectoryLoader;
 
 import edu.wpi.first.math.controller.PIDController;
 import edu.wpi.first.math.controller.RamseteController;
+import edu.wpi.first.math.geometry.Pose2d;
 import edu.wpi.first.math.trajectory.Trajectory;
+import edu.wpi.first.wpilibj.Timer;
+import edu.wpi.first.wpilibj.smartdashboard.SmartDashboard;
 import edu.wpi.first.wpilibj2.command.RamseteCommand;
 
 public class DrivetrainRamsete extends RamseteCommand {
@@ -20,6 +24,11 @@ public class DrivetrainRamsete extends RamseteCommand {
     protected Trajectory trajectory;
     protected Drivetrain drivetrain;
 
+    // How far the robot is from where the trajectory wants it to be
+    private final Timer timer;
+    private double trackingError;
+    private double maxTrackingError;
+
     public DrivetrainRamsete(Drivetrain drivetrain, Trajectory trajectory) {
         super(
                 trajectory,
@@ -36,6 +45,8 @@ public class DrivetrainRamsete extends RamseteCommand {
         this.resetPosition = true;
         this.trajectory = trajectory;
         this.drivetrain = drivetrain;
+
+        this.timer = new Timer();
     }
 
     public DrivetrainRamsete(Drivetrain drivetrain, String path) {
@@ -67,5 +78,47 @@ public class DrivetrainRamsete extends RamseteCommand {
         if (resetPosition) {
             drivetrain.reset(trajectory.getInitialPose());
         }
+
+        trackingError = 0.0;
+        maxTrackingError = 0.0;
+
+        timer.reset();
+        timer.start();
+    }
+
+    @Override
+    public void execute() {
+        super.execute();
+
+        Pose2d goal = trajectory.sample(timer.get()).poseMeters;
+        trackingError = goal.getTranslation().getDistance(drivetrain.getPose().getTranslation());
+        maxTrackingError = Math.max(maxTrackingError, trackingError);
+
+        if (Settings.DEBUG_MODE.get()) {
+            SmartDashboard.putNumber("Debug/Drivetrain/Ramsete/Tracking Error (m)", trackingError);
+            SmartDashboard.putNumber(
+                    "Debug/Drivetrain/Ramsete/Max Tracking Error (m)", maxTrackingError);
+        }
+    }
+
+    @Override
+    public void end(boolean interrupted) {
+        super.end(interrupted);
+        timer.stop();
+    }
+
+    // How long until the end of the trajectory (in seconds)
+    public double getTimeLeft() {
+        return trajectory.getTotalTimeSeconds() - timer.get();
+    }
+
+    // Distance from the trajectory during the last cycle (in meters)
+    public double getTrackingError() {
+        return trackingError;
+    }
+
+    // Worst distance from the trajectory while following it (in meters)
+    public double getMaxTrackingError() {
+        return maxTrackingError;
     }
 }
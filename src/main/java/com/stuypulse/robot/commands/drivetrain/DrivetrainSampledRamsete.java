@@ -0,0 +1,209 @@
+/************************ PROJECT DORCAS ************************/
+/* Copyright (c) 2022 StuyPulse Robotics. All rights reserved.  */
+/* This work is licensed under the terms of the MIT license.    */
+/****************************************************************/
+
+package com.stuypulse.robot.commands.drivetrain;
+
+import com.stuypulse.robot.constants.Settings;
+import com.stuypulse.robot.constants.Settings.Drivetrain.Motion;
+import com.stuypulse.robot.subsystems.Drivetrain;
+import com.stuypulse.robot.util.SampledTrajectory;
+import com.stuypulse.robot.util.TrajectoryLoader;
+
+import edu.wpi.first.math.MathUtil;
+import edu.wpi.first.math.controller.PIDController;
+import edu.wpi.first.math.geometry.Pose2d;
+import edu.wpi.first.math.trajectory.Trajectory;
+import edu.wpi.first.wpilibj.Timer;
+import edu.wpi.first.wpilibj.smartdashboard.SmartDashboard;
+import edu.wpi.first.wpilibj2.command.CommandBase;
+
+/*-
+ * Follows a trajectory the same way as DrivetrainRamsete, but using a SampledTrajectory.
+ *
+ * The ramsete controller, wheel speed feedforward and PID are all worked out with
+ * doubles instead of WPILib's geometry and speed classes, so following the trajectory
+ * does not allocate anything or search through the trajectory states every cycle.
+ */
+public class DrivetrainSampledRamsete extends CommandBase {
+
+    // Default ramsete gains (same as RamseteController)
+    private static final double B = 2.0;
+    private static final double ZETA = 0.7;
+
+    protected boolean resetPosition;
+    protected final SampledTrajectory trajectory;
+    protected final Drivetrain drivetrain;
+
+    private final SampledTrajectory.Sample sample;
+
+    private final PIDController leftController;
+    private final PIDController rightController;
+
+    private final Timer timer;
+    private double lastTime;
+    private double lastLeftSpeed;
+    private double lastRightSpeed;
+
+    // How far the robot is from where the trajectory wants it to be
+    private double trackingError;
+    private double maxTrackingError;
+
+    public DrivetrainSampledRamsete(Drivetrain drivetrain, SampledTrajectory trajectory) {
+        this.resetPosition = true;
+        this.trajectory = trajectory;
+        this.drivetrain = drivetrain;
+
+        this.sample = new SampledTrajectory.Sample();
+
+        this.leftController = new PIDController(Motion.PID.kP, Motion.PID.kI, Motion.PID.kD);
+        this.rightController = new PIDController(Motion.PID.kP, Motion.PID.kI, Motion.PID.kD);
+
+        this.timer = new Timer();
+
+        addRequirements(drivetrain);
+    }
+
+    public DrivetrainSampledRamsete(Drivetrain drivetrain, Trajectory trajectory) {
+        this(drivetrain, new SampledTrajectory(trajectory));
+    }
+
+    public DrivetrainSampledRamsete(Drivetrain drivetrain, String... paths) {
+        this(drivetrain, TrajectoryLoader.getTrajectory(paths));
+    }
+
+    // [DEFAULT] Resets the drivetrain to the begining of the trajectory
+    public DrivetrainSampledRamsete robotRelative() {
+        this.resetPosition = true;
+        return this;
+    }
+
+    // Make the trajectory relative to the field
+    public DrivetrainSampledRamsete fieldRelative() {
+        this.resetPosition = false;
+        return this;
+    }
+
+    @Override
+    public void initialize() {
+        drivetrain.setHighGear();
+
+        if (resetPosition) {
+            drivetrain.reset(trajectory.getInitialPose());
+        }
+
+        trajectory.sample(0.0, sample);
+        lastTime = 0.0;
+        lastLeftSpeed = getLeftSpeed(sample.velocity, sample.velocity * sample.curvature);
+        lastRightSpeed = getRightSpeed(sample.velocity, sample.velocity * sample.curvature);
+
+        leftController.reset();
+        rightController.reset();
+
+        trackingError = 0.0;
+        maxTrackingError = 0.0;
+
+        timer.reset();
+        timer.start();
+    }
+
+    private static double getLeftSpeed(double velocity, double omega) {
+        return velocity - omega * Settings.Drivetrain.TRACK_WIDTH / 2.0;
+    }
+
+    private static double getRightSpeed(double velocity, double omega) {
+        return velocity + omega * Settings.Drivetrain.TRACK_WIDTH / 2.0;
+    }
+
+    // sin(x) / x, which is 1 at 0
+    private static double sinc(double x) {
+        return Math.abs(x) < 1e-9 ? 1.0 - x * x / 6.0 : Math.sin(x) / x;
+    }
+
+    @Override
+    public void execute() {
+        double time = timer.get();
+        double dt = time - lastTime;
+        lastTime = time;
+
+        trajectory.sample(time, sample);
+        Pose2d pose = drivetrain.getPose();
+
+        // error in the robot's frame of reference
+        double heading = pose.getRotation().getRadians();
+        double cos = Math.cos(heading);
+        double sin = Math.sin(heading);
+
+        double dx = sample.x - pose.getX();
+        double dy = sample.y - pose.getY();
+
+        double errorX = cos * dx + sin * dy;
+        double errorY = -sin * dx + cos * dy;
+        double errorHeading = MathUtil.angleModulus(sample.heading - heading);
+
+        // ramsete control law
+        double velocityRef = sample.velocity;
+        double omegaRef = sample.velocity * sample.curvature;
+
+        double k = 2.0 * ZETA * Math.sqrt(omegaRef * omegaRef + B * velocityRef * velocityRef);
+
+        double velocity = velocityRef * Math.cos(errorHeading) + k * errorX;
+        double omega = omegaRef + k * errorHeading + B * velocityRef * sinc(errorHeading) * errorY;
+
+        // wheel speeds with feedforward and feedback
+        double leftSpeed = getLeftSpeed(velocity, omega);
+        double rightSpeed = getRightSpeed(velocity, omega);
+
+        double leftAcceleration = dt > 0.0 ? (leftSpeed - lastLeftSpeed) / dt : 0.0;
+        double rightAcceleration = dt > 0.0 ? (rightSpeed - lastRightSpeed) / dt : 0.0;
+
+        lastLeftSpeed = leftSpeed;
+        lastRightSpeed = rightSpeed;
+
+        double leftVolts =
+                Motion.MOTOR_FEED_FORWARD.calculate(leftSpeed, leftAcceleration)
+                        + leftController.calculate(drivetrain.getLeftVelocity(), leftSpeed);
+        double rightVolts =
+                Motion.MOTOR_FEED_FORWARD.calculate(rightSpeed, rightAcceleration)
+                        + rightController.calculate(drivetrain.getRightVelocity(), rightSpeed);
+
+        drivetrain.tankDriveVolts(leftVolts, rightVolts);
+
+        // tracking error
+        trackingError = Math.hypot(dx, dy);
+        maxTrackingError = Math.max(maxTrackingError, trackingError);
+
+        if (Settings.DEBUG_MODE.get()) {
+            SmartDashboard.putNumber("Debug/Drivetrain/Ramsete/Tracking Error (m)", trackingError);
+            SmartDashboard.putNumber(
+                    "Debug/Drivetrain/Ramsete/Max Tracking Error (m)", maxTrackingError);
+        }
+    }
+
+    @Override
+    public boolean isFinished() {
+        return timer.hasElapsed(trajectory.getTotalTime());
+    }
+
+    @Override
+    public void end(boolean interrupted) {
+        timer.stop();
+        drivetrain.tankDriveVolts(0.0, 0.0);
+    }
+
+    // How long the trajectory has been followed for (in seconds)
+    protected double getTime() {
+        return timer.get();
+    }
+
+    // Distance from the trajectory during the last cycle (in meters)
+    public double getTrackingError() {
+        return trackingError;
+    }
+
+    // Worst distance from the trajectory while following it (in meters)
+    public double getMaxTrackingError() {
+        return maxTrackingError;
+    }
+}
@@ -23,6 +23,13 @@ public interface Field {
     double LENGTH = imperialToMeters(54, 0);
     Translation2d CENTER = new Translation2d(0, 0);
 
+    // Odometry (and PathWeaver) measures from the corner of the field instead of the center
+    Translation2d ODOMETRY_ORIGIN_TO_CENTER = new Translation2d(LENGTH / 2.0, WIDTH / 2.0);
+
+    static Translation2d toOdometry(Translation2d position) {
+        return position.plus(ODOMETRY_ORIGIN_TO_CENTER);
+    }
+
     public interface Balls {
         public interface Alliance {
             Translation2d UPPER = new Translation2d(-3.286667, 2.073733);
@@ -91,6 +91,12 @@ public interface Settings {
 
         SmartNumber TARGET_BIAS = new SmartNumber("Color Sensor/Target Bias", 1.5);
 
+        // How often the color sensor is read on its own thread (in seconds)
+        double UPDATE_PERIOD = 0.025;
+
+        // Lookup table made by ./gradlew trainBallClassifier
+        Path CLASSIFIER = DEPLOY_DIRECTORY.resolve("ballcolor.lut");
+
         // How long it takes to accept / reject balls
         double DEBOUNCE_TIME = 1.0 / 6.0;
 
@@ -100,16 +106,41 @@ public interface Settings {
         }
     }
 
+    public interface Sensors {
+        // How often the beam breaks are sampled and their filters updated (in seconds)
+        double UPDATE_PERIOD = 0.01;
+    }
+
     public interface Conveyor {
-        // How long it takes to until ConveyorShootCommand finishes
-        double DEBOUNCE_TIME = 0.2; // 0.4 for chezy
-        double SEMI_AUTO_TIME = 0.400694;
+        // Longest a ball can take from leaving the gandalf to reaching the top belt, balls that
+        // take longer are assumed to have fallen back out
+        double MAX_TRANSFER_TIME = 1.0;
+
+        // How far balls move from the gandalf to the top belt, and from the top belt into the
+        // shooter (in seconds with the top belt running forward). These are only starting
+        // guesses, they get updated every time a ball makes it past a beam break.
+        double TRANSFER_TRAVEL = 0.3;
+        double TOP_BELT_TRAVEL = 0.15;
+        double TRAVEL_LEARNING_RATE = 0.25;
+
+        // How long a ball takes to get into the flywheel after leaving the top belt
+        double SHOOTER_TIME = 0.1;
 
         SmartNumber SLOW_MUL = new SmartNumber("Conveyor/Slow Mul", 5.0 / 8.0);
 
         SmartNumber TOP_BELT_SPEED = new SmartNumber("Conveyor/Top Belt Speed", 0.8);
         SmartNumber ACCEPT_SPEED = new SmartNumber("Conveyor/Accept Speed", 1.0);
         SmartNumber REJECT_SPEED = new SmartNumber("Conveyor/Reject Speed", -1.0);
+
+        // Waiting for the flywheel to recover between shots in SEMI_AUTO
+        public interface Feed {
+            // Starting guess for how long the flywheel takes to recover from a shot (s)
+            double RECOVERY_TIME = 0.400694;
+            double RECOVERY_LEARNING_RATE = 0.25;
+
+            // Shots that take longer than this to recover are not learned from
+            double MAX_RECOVERY_TIME = 1.0;
+        }
     }
 
     public interface Drivetrain {
@@ -141,6 +172,9 @@ public interface Settings {
             double MAX_VELOCITY = 2.0;
             double MAX_ACCELERATION = 3.0;
 
+            // Most voltage chained trajectories may ask for, leaving room for feedback
+            double MAX_VOLTAGE = 10.0;
+
             public interface FeedForward {
                 double kS = 0.20094;
                 double kV = 1.6658;
@@ -159,6 +193,12 @@ public interface Settings {
             Rotation2d STARTING_ANGLE = new Rotation2d();
 
             Pose2d STARTING_POSITION = new Pose2d(STARTING_TRANSLATION, STARTING_ANGLE);
+
+            // Odometry runs on its own thread, faster than the main loop
+            double UPDATE_PERIOD = 1.0 / 200.0;
+
+            // How far back in time we remember where the robot was
+            double HISTORY_LENGTH = 1.0;
         }
 
         public interface Stalling {
@@ -260,6 +300,27 @@ public interface Settings {
 
         double MAX_RPM_ERROR = 100.00694;
 
+        // Model of the ball leaving the shooter, used to find how long a shot is in the air
+        public interface Ball {
+            double FLYWHEEL_DIAMETER = Units.inchesToMeters(4);
+
+            // Angle above the ground the ball leaves at with the hood retracted (in degrees)
+            double LAUNCH_ANGLE = 60.0;
+
+            // How fast the ball leaves compared to the surface of the flywheel
+            SmartNumber SPEED_RATIO = new SmartNumber("Shooter/Ball/Speed Ratio", 0.45);
+        }
+
+        // Finding where to aim and how fast to shoot while the robot is moving
+        public interface Solver {
+            int ITERATIONS = 5;
+
+            // Balls are not fed while the robot is lined up so that they would miss the center
+            // of the hub by more than this, counting both the aim and the range of the shot
+            SmartNumber MAX_MISS =
+                    new SmartNumber("Shooter/Solver/Max Miss", Field.Hub.UPPER_RADIUS / 2.0);
+        }
+
         public interface ShooterPID {
             double kP = 0.005;
             double kI = 0.0;
@@ -332,6 +393,12 @@ public interface Settings {
         double MIN_VALID_DISTANCE = Units.feetToMeters(2);
         double MAX_VALID_DISTANCE = Field.LENGTH / 2.0;
 
+        // Limelight docs say to add at least 11ms for image capture
+        double IMAGE_CAPTURE_LATENCY = 0.011;
+
+        // Frames that reached the robot longer ago than this are not trusted to be timestamped
+        double MAX_FRAME_AGE = 0.5;
+
         // How long it takes to stop aligning
         double DEBOUNCE_TIME = 0.2;
 
@@ -345,6 +412,41 @@ public interface Settings {
         SmartNumber
                 MAX_VELOCITY = // THERE WAS AN ERROR WHERE THIS WOULD'NT CHECK WHEN MOVING BACKWARDS
                 new SmartNumber("Limelight/Max Velocity Error", Units.inchesToMeters(3));
+
+        // Fake limelight used when running in simulation
+        public interface Sim {
+            // Limelight 2+ field of view
+            double HORIZONTAL_FOV = 59.6;
+            double VERTICAL_FOV = 49.7;
+
+            // noise is in degrees, latency is the pipeline latency in ms (tl)
+            SmartNumber NOISE = new SmartNumber("Limelight/Sim/Noise", 0.1);
+            SmartNumber LATENCY = new SmartNumber("Limelight/Sim/Latency", 25.0);
+            SmartNumber LATENCY_JITTER = new SmartNumber("Limelight/Sim/Latency Jitter", 3.0);
+
+            // chance of a frame losing the target even though it is in view
+            SmartNumber DROPOUT = new SmartNumber("Limelight/Sim/Dropout", 0.05);
+
+            // so that simulated runs can be repeated exactly
+            long SEED = 694;
+        }
+    }
+
+    public interface PoseEstimator {
+        // How quickly vision measurements pull the odometry towards them
+        SmartNumber VISION_RC = new SmartNumber("Pose Estimator/Vision RC", 0.5);
+
+        // Vision measurements further than this from the estimate are ignored
+        SmartNumber MAX_VISION_ERROR = new SmartNumber("Pose Estimator/Max Vision Error", 1.5);
+
+        // Frames have to be this close to each other to count as agreeing (in meters)
+        SmartNumber VISION_AGREEMENT = new SmartNumber("Pose Estimator/Vision Agreement", 0.3);
+
+        // Frames in a row that have to agree before the first offset is trusted
+        int SEED_FRAMES = 5;
+
+        // Ignored frames in a row that have to agree before the offset is replaced by them
+        int RESEED_FRAMES = 15;
     }
 
     public interface Alignment {
@@ -6,13 +6,13 @@
 package com.stuypulse.robot.constants;
 
 import com.stuypulse.stuylib.math.Angle;
-import com.stuypulse.stuylib.math.Vector2D;
-import com.stuypulse.stuylib.math.interpolation.Interpolator;
-import com.stuypulse.stuylib.math.interpolation.NearestInterpolator;
-
-import edu.wpi.first.math.util.Units;
 
 import com.stuypulse.robot.constants.Settings.Limelight;
+import com.stuypulse.robot.util.ShotTable;
+import com.stuypulse.robot.util.ShotTableReloader;
+
+import java.nio.file.Path;
+import java.util.List;
 
 
 
@@ -21,38 +21,31 @@ public interface ShotMap {
         
         double MIN_DISTANCE = 0;
 
-        public interface Distances{
-                double RING = Limelight.RING_DISTANCE.get();
-                double POINT_A = Units.inchesToMeters(167);
-                double POINT_B = Units.inchesToMeters(184);
-                double POINT_C = Units.inchesToMeters(201);
-                double LAUNCHPAD = Limelight.PAD_DISTANCE.get();
-        }       
-
-        // Converts a distance measurement to an RPM to shoot at
-        Interpolator DISTANCE_TO_RPM =
-                new NearestInterpolator(
-                        new Vector2D(Distances.RING, Settings.Shooter.RING_RPM.get()),
-                        new Vector2D(Distances.POINT_A, 3175),
-                        new Vector2D(Distances.POINT_B, 3325),
-                        new Vector2D(Distances.POINT_C, 3500),
-                        new Vector2D(Distances.LAUNCHPAD, Settings.Shooter.PAD_RPM.get()));
+        // Calibration points that are not tuned from SmartDashboard
+        Path CALIBRATION_FILE = Settings.DEPLOY_DIRECTORY.resolve("shotmap.csv");
+
+        // Converts a distance measurement to an RPM and an angle offset to align to, and is
+        // rebuilt in the background whenever the file or the ring / pad shots are retuned
+        ShotTableReloader TABLE =
+                new ShotTableReloader(
+                        CALIBRATION_FILE,
+                        () ->
+                                List.of(
+                                        new ShotTable.Point(
+                                                Limelight.RING_DISTANCE.get(),
+                                                Settings.Shooter.RING_RPM.get(),
+                                                Limelight.RING_YAW.get()),
+                                        new ShotTable.Point(
+                                                Limelight.PAD_DISTANCE.get(),
+                                                Settings.Shooter.PAD_RPM.get(),
+                                                Limelight.PAD_YAW.get())));
 
         public static double getRPM(double distance) {
-            return DISTANCE_TO_RPM.interpolate(distance);
+            return TABLE.get().getRPM(distance);
         }
 
-        // Converts a distance measurement to an angle offset to align to
-        Interpolator DISTANCE_TO_YAW =
-                new NearestInterpolator(
-                        new Vector2D(Distances.RING, Limelight.RING_YAW.get()),
-                        new Vector2D(Distances.POINT_A, 5.1),
-                        new Vector2D(Distances.POINT_B, 5.70),
-                        new Vector2D(Distances.POINT_C, 6.0),
-                        new Vector2D(Distances.LAUNCHPAD, Limelight.PAD_YAW.get()));
-        
         public static Angle getAngle(double distance) {
-            return Angle.fromDegrees(DISTANCE_TO_YAW.interpolate(distance));
+            return Angle.fromDegrees(TABLE.get().getYaw(distance));
         }
                 
 }
\ No newline at end of file
@@ -10,23 +10,65 @@ import com.stuypulse.stuylib.network.limelight.Limelight;
 import com.stuypulse.stuylib.network.limelight.Limelight.LEDMode;
 
 import com.stuypulse.robot.constants.Settings;
+import com.stuypulse.robot.util.LimelightFrame;
 
 import edu.wpi.first.cameraserver.CameraServer;
+import edu.wpi.first.networktables.EntryListenerFlags;
+import edu.wpi.first.networktables.EntryNotification;
+import edu.wpi.first.networktables.NetworkTable;
+import edu.wpi.first.networktables.NetworkTableEntry;
+import edu.wpi.first.networktables.NetworkTableInstance;
 import edu.wpi.first.util.net.PortForwarder;
 import edu.wpi.first.wpilibj.DriverStation;
+import edu.wpi.first.wpilibj.Timer;
 import edu.wpi.first.wpilibj.smartdashboard.SmartDashboard;
 import edu.wpi.first.wpilibj2.command.SubsystemBase;
 
+import java.util.concurrent.atomic.AtomicReference;
+
+/*-
+ * Reads the hub target from the Limelight.
+ *
+ * Instead of asking NetworkTables for every value every time it is needed, a listener
+ * builds an immutable LimelightFrame once for every frame the limelight publishes.
+ * Everything in this class reads from the latest frame, so a whole robot cycle sees
+ * the same target no matter how many times the camera is asked about it.
+ */
 public class Camera extends SubsystemBase {
 
     private final Shooter shooter;
 
     private final Limelight limelight;
 
+    private final NetworkTableEntry validTarget;
+    private final NetworkTableEntry xAngle;
+    private final NetworkTableEntry yAngle;
+    private final NetworkTableEntry latency;
+
+    private final AtomicReference<LimelightFrame> frame;
+
     public Camera(Shooter shooter) {
         this.shooter = shooter;
         this.limelight = Limelight.getInstance();
 
+        NetworkTable table = NetworkTableInstance.getDefault().getTable("limelight");
+        this.validTarget = table.getEntry("tv");
+        this.xAngle = table.getEntry("tx");
+        this.yAngle = table.getEntry("ty");
+        this.latency = table.getEntry("tl");
+
+        this.frame = new AtomicReference<>(LimelightFrame.EMPTY);
+
+        int flags =
+                EntryListenerFlags.kImmediate
+                        | EntryListenerFlags.kLocal
+                        | EntryListenerFlags.kNew
+                        | EntryListenerFlags.kUpdate;
+
+        // the limelight publishes tl last, so by the time it changes the rest of the frame
+        // is already here (tl has jitter in it, so it changes with nearly every frame)
+        latency.addListener(this::onFrameUpdate, flags);
+
         for (int port : Settings.Limelight.PORTS) {
             PortForwarder.add(port, "limelight.local", port);
         }
@@ -36,60 +78,133 @@ public class Camera extends SubsystemBase {
         // CameraServer.startAutomaticCapture("Intake Camera", 1);
     }
 
+    /*** Frames ***/
+
+    // Called from the networktables listener thread once for every frame the limelight publishes
+    private void onFrameUpdate(EntryNotification notification) {
+        // networktables timestamps are in microseconds on the same clock as the FPGA
+        double received =
+                Math.min(notification.value.getTime() / 1e6, Timer.getFPGATimestamp());
+
+        // read every value once, the latency comes with the notification itself
+        boolean hasTarget = validTarget.getDouble(0.0) > 0.5;
+        double tx = xAngle.getDouble(0.0);
+        double ty = yAngle.getDouble(0.0);
+        double tl = notification.value.getDouble();
+
+        frame.set(
+                new LimelightFrame(
+                        frame.get().getId() + 1, hasTarget, tx, ty, tl / 1000.0, received));
+    }
+
+    /** returns the latest frame received from the limelight */
+    public LimelightFrame getFrame() {
+        return frame.get();
+    }
+
+    /** returns how long ago the latest frame reached the robot (in seconds) */
+    public double getFrameAge() {
+        return Timer.getFPGATimestamp() - getFrame().getReceiveTimestamp();
+    }
+
     /*** Has Target ***/
     public boolean hasAnyTarget() {
-        return limelight.getValidTarget();
+        return getFrame().hasTarget();
     }
 
     public boolean hasTarget() {
-        return hasAnyTarget()
-                && shooter.isReady()
-                && Settings.Limelight.MIN_VALID_DISTANCE < getDistance()
-                && getDistance() < Settings.Limelight.MAX_VALID_DISTANCE;
+        LimelightFrame frame = getFrame();
+        if (!frame.hasTarget() || !shooter.isReady()) {
+            return false;
+        }
+
+        double distance = getDistance(frame);
+        return Settings.Limelight.MIN_VALID_DISTANCE < distance
+                && distance < Settings.Limelight.MAX_VALID_DISTANCE;
     }
 
     /*** Angles ***/
     public Angle getXAngle() {
-        if (!hasAnyTarget()) {
+        LimelightFrame frame = getFrame();
+        if (!frame.hasTarget()) {
             Settings.reportWarning("Unable To Find Target! [getXAngle() was called]");
             return Angle.kZero;
         }
 
-        return Angle.fromDegrees(
-                limelight.getTargetXAngle() + Settings.Limelight.LIMELIGHT_YAW.get());
+        return Angle.fromDegrees(frame.getXAngle() + Settings.Limelight.LIMELIGHT_YAW.get());
     }
 
     public Angle getYAngle() {
-        if (!hasAnyTarget()) {
+        LimelightFrame frame = getFrame();
+        if (!frame.hasTarget()) {
             Settings.reportWarning("Unable To Find Target! [getYAngle() was called]");
             return Angle.kZero;
         }
 
-        return Angle.fromDegrees(
-                limelight.getTargetYAngle() + Settings.Limelight.LIMELIGHT_PITCH.get());
+        return getYAngle(frame);
+    }
+
+    private static Angle getYAngle(LimelightFrame frame) {
+        return Angle.fromDegrees(frame.getYAngle() + Settings.Limelight.LIMELIGHT_PITCH.get());
     }
 
     /*** Distance ***/
 
     /** returns distance from intake to center of hub */
     public double getDistance() {
-        if (!hasAnyTarget()) {
+        LimelightFrame frame = getFrame();
+        if (!frame.hasTarget()) {
             Settings.reportWarning("Unable To Find Target! [getDistance() was called]");
             return Settings.Limelight.RING_DISTANCE.get();
         }
 
+        return getDistance(frame);
+    }
+
+    private static double getDistance(LimelightFrame frame) {
         return Settings.Limelight.CENTER_TO_HUB
                 + Settings.Limelight.LIMELIGHT_TO_INTAKE
                 + Settings.Limelight.HEIGHT_DIFFERENCE
-                        / getYAngle().tan(); // distance from edge of goal to limelight
+                        / getYAngle(frame).tan(); // distance from edge of goal to limelight
+    }
+
+    /*** Timestamps ***/
+
+    /** returns how long the limelight took to capture and process the current frame (in seconds) */
+    public double getLatency() {
+        return getFrame().getLatency() + Settings.Limelight.IMAGE_CAPTURE_LATENCY;
+    }
+
+    /** returns the FPGA time (in seconds) when the current frame reached the robot */
+    public double getReceiveTimestamp() {
+        double now = Timer.getFPGATimestamp();
+        double received = getFrame().getReceiveTimestamp();
+
+        // networktables only sends values that change, so a very old frame
+        // most likely means the limelight is still seeing the exact same thing
+        if (received < now - Settings.Limelight.MAX_FRAME_AGE) {
+            return now;
+        }
+
+        return received;
+    }
+
+    /** returns the FPGA time (in seconds) when the current frame was captured by the limelight */
+    public double getCaptureTimestamp() {
+        return getReceiveTimestamp() - getLatency();
     }
 
     /*** Periodic ***/
 
     @Override
     public void periodic() {
-        if (Settings.DEBUG_MODE.get() && hasAnyTarget()) {
-            SmartDashboard.putNumber("Camera/Distance", getDistance());
+        if (Settings.DEBUG_MODE.get()) {
+            if (hasAnyTarget()) {
+                SmartDashboard.putNumber("Camera/Distance", getDistance());
+            }
+
+            SmartDashboard.putNumber("Camera/Frame Age (ms)", getFrameAge() * 1000.0);
+            SmartDashboard.putNumber("Camera/Frame ID", getFrame().getId());
         }
 
         if (!limelight.isConnected()) {
@@ -5,20 +5,31 @@
 
 package com.stuypulse.robot.subsystems;
 
-import com.stuypulse.stuylib.streams.booleans.BStream;
 import com.stuypulse.stuylib.streams.booleans.filters.BDebounce;
+import com.stuypulse.stuylib.streams.booleans.filters.BFilter;
 
 import com.stuypulse.robot.constants.Ports;
 import com.stuypulse.robot.constants.Settings;
 import com.stuypulse.robot.constants.Settings.ColorSensor.BallRGB;
+import com.stuypulse.robot.util.BallClassifier;
+import com.stuypulse.robot.util.BeamBreak;
+import com.stuypulse.robot.util.ColorSample;
 
-import edu.wpi.first.wpilibj.DigitalInput;
 import edu.wpi.first.wpilibj.DriverStation;
+import edu.wpi.first.wpilibj.Notifier;
+import edu.wpi.first.wpilibj.Timer;
 import edu.wpi.first.wpilibj.smartdashboard.SmartDashboard;
 import edu.wpi.first.wpilibj.util.Color;
 import edu.wpi.first.wpilibj2.command.SubsystemBase;
 
 import com.revrobotics.ColorSensorV3;
+import com.revrobotics.ColorSensorV3.ColorSensorMeasurementRate;
+import com.revrobotics.ColorSensorV3.ColorSensorResolution;
+import com.revrobotics.ColorSensorV3.GainFactor;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.concurrent.atomic.AtomicReference;
 
 /*-
  * Detects what color ball is in the Conveyor.
@@ -39,30 +50,71 @@ import com.revrobotics.ColorSensorV3;
  *      - hasBall()
  *         - Checks if there is a ball present
  *
+ * The color sensor is read over I2C on its own thread, which can take a few milliseconds
+ * or hang when the bus has problems. The robot loop only ever reads the latest sample.
+ *
  * @author Vincent Wang
  */
 public class ColorSensor extends SubsystemBase {
 
+    /** Reads the color sensor on its own thread so the robot loop never waits on I2C */
     private static class Sensor {
         private final ColorSensorV3 colorSensor;
-        public boolean connected;
-        public Color color;
+        private final AtomicReference<ColorSample> sample;
+        private final Notifier thread;
 
         public Sensor() {
             colorSensor = new ColorSensorV3(Ports.ColorSensor.COLOR_SENSOR);
-            connected = false;
-            color = Color.kBlack;
+            sample = new AtomicReference<>(ColorSample.EMPTY);
+
+            thread = new Notifier(this::update);
+            thread.setName("Color Sensor");
+            thread.startPeriodic(Settings.ColorSensor.UPDATE_PERIOD);
+        }
+
+        // the sensor only measures a new color this often, so it is set to match the thread
+        private void configure() {
+            double period = Settings.ColorSensor.UPDATE_PERIOD;
+
+            if (period < 0.05) {
+                colorSensor.configureColorSensor(
+                        ColorSensorResolution.kColorSensorRes16bit,
+                        ColorSensorMeasurementRate.kColorRate25ms,
+                        GainFactor.kGain3x);
+            } else if (period < 0.1) {
+                colorSensor.configureColorSensor(
+                        ColorSensorResolution.kColorSensorRes17bit,
+                        ColorSensorMeasurementRate.kColorRate50ms,
+                        GainFactor.kGain3x);
+            } else {
+                colorSensor.configureColorSensor(
+                        ColorSensorResolution.kColorSensorRes18bit,
+                        ColorSensorMeasurementRate.kColorRate100ms,
+                        GainFactor.kGain3x);
+            }
         }
 
-        public void update() {
-            this.connected = Settings.ColorSensor.ENABLED.get();
+        private void update() {
+            ColorSample last = sample.get();
+
+            boolean connected = Settings.ColorSensor.ENABLED.get();
+
+            if (connected)
+                connected &= Settings.ColorSensor.AUTO.get() || !DriverStation.isAutonomous();
+            if (connected) connected &= colorSensor.isConnected();
+
+            // the sensor forgets its settings if it loses power
+            if (connected && !last.isConnected()) configure();
+
+            Color color = connected ? colorSensor.getColor() : Color.kBlack;
 
-            if (this.connected)
-                this.connected &= Settings.ColorSensor.AUTO.get() || !DriverStation.isAutonomous();
-            if (this.connected) this.connected &= colorSensor.isConnected();
+            sample.set(
+                    new ColorSample(
+                            last.getId() + 1, connected, color, Timer.getFPGATimestamp()));
+        }
 
-            if (this.connected) this.color = colorSensor.getColor();
-            else this.color = Color.kBlack;
+        public ColorSample getSample() {
+            return sample.get();
         }
     }
 
@@ -71,36 +123,65 @@ public class ColorSensor extends SubsystemBase {
         BLUE_BALL
     }
 
-    private BallColor target;
+    // read by the sensor thread, so changes need to be seen there
+    private volatile BallColor target;
+
     private final Sensor sensor;
-    private final DigitalInput ballIR;
+    private final BallClassifier classifier;
+    private final BeamBreak ballIR;
+
+    // what the sensor thread read this tick
+    private volatile boolean ballSeen;
+    private volatile ColorSample tickSample;
 
-    private final BStream alliance;
-    private final BStream opponent;
+    private final BFilter allianceFilter;
+    private final BFilter opponentFilter;
+    private volatile boolean alliance;
+    private volatile boolean opponent;
 
-    public ColorSensor() {
+    public ColorSensor(SensorScheduler sensors) {
         sensor = new Sensor();
-        ballIR = new DigitalInput(Ports.ColorSensor.BALL_IR_SENSOR);
+        classifier = loadClassifier();
+        ballIR = new BeamBreak(Ports.ColorSensor.BALL_IR_SENSOR);
 
-        alliance =
-                BStream.create(() -> hasBall())
-                        .and(() -> getCurrentBall() == getTargetBall())
-                        .filtered(new BDebounce.Rising(Settings.ColorSensor.DEBOUNCE_TIME))
-                        .polling(0.01);
+        getTargetBallUpdate();
 
-        opponent =
-                BStream.create(() -> hasBall())
-                        .and(() -> getCurrentBall() != getTargetBall())
-                        .filtered(new BDebounce.Rising(Settings.ColorSensor.DEBOUNCE_TIME))
-                        .polling(0.01);
+        ballSeen = false;
+        tickSample = ColorSample.EMPTY;
 
-        getTargetBallUpdate();
+        allianceFilter = new BDebounce.Rising(Settings.ColorSensor.DEBOUNCE_TIME);
+        opponentFilter = new BDebounce.Rising(Settings.ColorSensor.DEBOUNCE_TIME);
+        alliance = false;
+        opponent = false;
+
+        sensors.addSampler(this::sample);
+        sensors.addFilter(this::filter);
+    }
+
+    /*** SENSOR THREAD ***/
+
+    private void sample() {
+        ballSeen = ballIR.isBlocked();
+        tickSample = sensor.getSample();
+    }
+
+    private void filter() {
+        boolean ball = ballSeen;
+        BallColor current = getCurrentBall(tickSample.getColor());
+
+        alliance = allianceFilter.get(ball && current == getTargetBall());
+        opponent = opponentFilter.get(ball && current != getTargetBall());
     }
 
     /*** PROXIMITY DETERMINATION ***/
 
     public boolean hasBall() {
-        return !ballIR.get();
+        return ballSeen;
+    }
+
+    // the conveyor reads the edges of this sensor along with its own
+    BeamBreak getBallBeamBreak() {
+        return ballIR;
     }
 
     /*** TARGET BALL DETERMINATION ***/
@@ -122,6 +203,20 @@ public class ColorSensor extends SubsystemBase {
 
     /*** COLOR DETERMINATION ***/
 
+    private static BallClassifier loadClassifier() {
+        // there is no table until one has been trained from hand labeled logs
+        if (!Files.exists(Settings.ColorSensor.CLASSIFIER)) {
+            return null;
+        }
+
+        try {
+            return BallClassifier.read(Settings.ColorSensor.CLASSIFIER);
+        } catch (IOException e) {
+            Settings.reportWarning("Unable To Load Ball Classifier, Using Target Colors Instead!");
+            return null;
+        }
+    }
+
     private static double getColorDistance(Color a, Color b) {
         double dr = a.red - b.red;
         double dg = a.green - b.green;
@@ -129,14 +224,35 @@ public class ColorSensor extends SubsystemBase {
         return dr * dr + dg * dg + db * db;
     }
 
+    /** returns the latest reading of the color sensor */
+    public ColorSample getSample() {
+        return sensor.getSample();
+    }
+
     private Color getRawColor() {
-        return sensor.color;
+        return getSample().getColor();
     }
 
     public BallColor getCurrentBall() {
+        return getCurrentBall(getRawColor());
+    }
+
+    private BallColor getCurrentBall(Color color) {
+        // Use the table trained from our logs when it is sure of the color
+        if (classifier != null) {
+            switch (classifier.classify(color)) {
+                case RED:
+                    return BallColor.RED_BALL;
+                case BLUE:
+                    return BallColor.BLUE_BALL;
+                default:
+                    break;
+            }
+        }
+
         // Get the error to each of the target colors
-        double redError = getColorDistance(getRawColor(), BallRGB.RED);
-        double blueError = getColorDistance(getRawColor(), BallRGB.BLUE);
+        double redError = getColorDistance(color, BallRGB.RED);
+        double blueError = getColorDistance(color, BallRGB.BLUE);
 
         // Bias the error towards the alliance color
         switch (getTargetBall()) {
@@ -155,7 +271,7 @@ public class ColorSensor extends SubsystemBase {
     /*** PUBLIC BALL DETERMINATION ***/
 
     private boolean isConnected() {
-        return sensor.connected;
+        return getSample().isConnected();
     }
 
     public boolean hasAllianceBall() {
@@ -163,7 +279,7 @@ public class ColorSensor extends SubsystemBase {
             return hasBall();
         }
 
-        return alliance.get();
+        return alliance;
     }
 
     public boolean hasOpponentBall() {
@@ -171,7 +287,7 @@ public class ColorSensor extends SubsystemBase {
             return false;
         }
 
-        return opponent.get();
+        return opponent;
     }
 
     public boolean hasBall(BallColor target) {
@@ -186,14 +302,19 @@ public class ColorSensor extends SubsystemBase {
 
     @Override
     public void periodic() {
-        sensor.update();
-
         if (Settings.DEBUG_MODE.get()) {
-            SmartDashboard.putBoolean("Debug/Color Sensor/Is Connected", isConnected());
-
-            SmartDashboard.putNumber("Debug/Color Sensor/Color R", getRawColor().red);
-            SmartDashboard.putNumber("Debug/Color Sensor/Color G", getRawColor().green);
-            SmartDashboard.putNumber("Debug/Color Sensor/Color B", getRawColor().blue);
+            // log everything from one sample so the channels always match
+            ColorSample sample = getSample();
+            Color color = sample.getColor();
+
+            SmartDashboard.putBoolean("Debug/Color Sensor/Is Connected", sample.isConnected());
+            SmartDashboard.putNumber(
+                    "Debug/Color Sensor/Sample Age",
+                    Timer.getFPGATimestamp() - sample.getTimestamp());
+
+            SmartDashboard.putNumber("Debug/Color Sensor/Color R", color.red);
+            SmartDashboard.putNumber("Debug/Color Sensor/Color G", color.green);
+            SmartDashboard.putNumber("Debug/Color Sensor/Color B", color.blue);
 
             SmartDashboard.putBoolean("Debug/Color Sensor/Has Any Ball", hasBall());
             SmartDashboard.putBoolean("Debug/Color Sensor/Has Alliance Ball", hasAllianceBall());
@@ -5,17 +5,17 @@
 
 package com.stuypulse.robot.subsystems;
 
-import com.stuypulse.stuylib.streams.booleans.BStream;
-import com.stuypulse.stuylib.streams.booleans.filters.BButton;
-import com.stuypulse.stuylib.streams.booleans.filters.BDebounce;
-import com.stuypulse.stuylib.streams.booleans.filters.BDebounceRC;
-
 import com.stuypulse.robot.commands.conveyor.modes.ConveyorMode;
 import com.stuypulse.robot.constants.Motors;
 import com.stuypulse.robot.constants.Ports;
 import com.stuypulse.robot.constants.Settings;
+import com.stuypulse.robot.subsystems.ColorSensor.BallColor;
+import com.stuypulse.robot.subsystems.ConveyorState.Slot;
+import com.stuypulse.robot.util.BeamBreak;
 
-import edu.wpi.first.wpilibj.DigitalInput;
+import edu.wpi.first.util.datalog.DoubleLogEntry;
+import edu.wpi.first.wpilibj.DataLogManager;
+import edu.wpi.first.wpilibj.Timer;
 import edu.wpi.first.wpilibj.smartdashboard.SmartDashboard;
 import edu.wpi.first.wpilibj2.command.SubsystemBase;
 
@@ -66,16 +66,40 @@ public class Conveyor extends SubsystemBase {
     private final CANSparkMax gandalfMotor;
 
     private final ColorSensor colorSensor;
-    private final DigitalInput topIRSensor;
+    private final BeamBreak topIRSensor;
+    private final BeamBreak gandalfIRSensor;
+
+    // what the sensor thread read this tick
+    private volatile boolean topBeltBall;
+
+    // Every ball in the conveyor, moved along by the edges below
+    private final ConveyorState state;
+
+    // When the next ball can be fed into the shooter
+    private final FeedScheduler feed;
 
-    private final BStream empty;
-    private final BStream newBall;
+    // If a beam break disagreed with the queue last cycle
+    private boolean gandalfMismatch;
+    private boolean topMismatch;
+
+    // When balls last entered and left each beam break (FPGA time, NaN if they have not)
+    private double gandalfEntry;
+    private double gandalfExit;
+    private double topEntry;
+
+    // How long balls take to go through each part of the conveyor
+    private final DoubleLogEntry gandalfTimeLog;
+    private final DoubleLogEntry transferTimeLog;
+    private final DoubleLogEntry topTimeLog;
+    private double gandalfTime;
+    private double transferTime;
+    private double topTime;
 
     private Direction topBeltDirection;
     private Direction gandalfDirection;
 
     /** Creates a Conveyor subsystem */
-    public Conveyor(ColorSensor colorSensor) {
+    public Conveyor(ColorSensor colorSensor, Shooter shooter, SensorScheduler sensors) {
         this.topBeltMotor = new CANSparkMax(Ports.Conveyor.TOP_BELT_MOTOR, MotorType.kBrushless);
         Motors.Conveyor.TOP_BELT.configure(topBeltMotor);
 
@@ -83,21 +107,29 @@ public class Conveyor extends SubsystemBase {
         Motors.Conveyor.GANDALF.configure(gandalfMotor);
 
         this.colorSensor = colorSensor;
-        this.topIRSensor = new DigitalInput(Ports.Conveyor.TOP_BELT_IR_SENSOR);
-
-        this.empty =
-                BStream.create(this::hasTopBeltBall)
-                        .or(this::hasAnyBall)
-                        .not()
-                        .filtered(new BDebounceRC.Rising(Settings.Conveyor.DEBOUNCE_TIME))
-                        .polling(0.01);
-
-        this.newBall =
-                BStream.create(this::hasTopBeltBall)
-                        .filtered(
-                                new BButton.Pressed(),
-                                new BDebounce.Falling(Settings.Conveyor.SEMI_AUTO_TIME))
-                        .polling(0.01);
+        this.topIRSensor = new BeamBreak(Ports.Conveyor.TOP_BELT_IR_SENSOR);
+        this.gandalfIRSensor = colorSensor.getBallBeamBreak();
+
+        this.topBeltBall = false;
+
+        this.state = new ConveyorState();
+        this.feed = new FeedScheduler(shooter);
+        this.gandalfMismatch = false;
+        this.topMismatch = false;
+
+        this.gandalfEntry = Double.NaN;
+        this.gandalfExit = Double.NaN;
+        this.topEntry = Double.NaN;
+
+        this.gandalfTimeLog = new DoubleLogEntry(DataLogManager.getLog(), "Conveyor/Gandalf Time");
+        this.transferTimeLog =
+                new DoubleLogEntry(DataLogManager.getLog(), "Conveyor/Transfer Time");
+        this.topTimeLog = new DoubleLogEntry(DataLogManager.getLog(), "Conveyor/Top Belt Time");
+        this.gandalfTime = Double.NaN;
+        this.transferTime = Double.NaN;
+        this.topTime = Double.NaN;
+
+        sensors.addSampler(this::sample);
 
         setTopBelt(Direction.STOPPED);
         setGandalf(Direction.STOPPED);
@@ -159,11 +191,134 @@ public class Conveyor extends SubsystemBase {
         return gandalfDirection;
     }
 
+    /*** SENSOR THREAD ***/
+
+    private void sample() {
+        topBeltBall = topIRSensor.isBlocked();
+    }
+
+    /*** BALL EDGES ***/
+
+    // how fast the top belt is moving balls, compared to running it FORWARD
+    private double getTopBeltRate() {
+        switch (topBeltDirection) {
+            case FORWARD:
+                return 1.0;
+            case FORWARD_SLOW:
+                return Settings.Conveyor.SLOW_MUL.get();
+            case REVERSE:
+                return -1.0;
+            default:
+                return 0.0;
+        }
+    }
+
+    private void onGandalfEdge(BeamBreak.Edge edge) {
+        if (edge.entered) {
+            gandalfEntry = edge.timestamp;
+            state.onGandalfEntered(edge.timestamp);
+        } else {
+            gandalfExit = edge.timestamp;
+            state.onGandalfExited(
+                    edge.timestamp,
+                    gandalfDirection == Direction.FORWARD
+                            || gandalfDirection == Direction.FORWARD_SLOW);
+
+            if (!Double.isNaN(gandalfEntry)) {
+                gandalfTime = gandalfExit - gandalfEntry;
+                gandalfTimeLog.append(gandalfTime);
+            }
+        }
+    }
+
+    private void onTopEdge(BeamBreak.Edge edge) {
+        if (edge.entered) {
+            topEntry = edge.timestamp;
+            state.onTopEntered(edge.timestamp);
+
+            // only count balls that just left the gandalf, not ones that started on top
+            double transfer = topEntry - gandalfExit;
+            if (transfer < Settings.Conveyor.MAX_TRANSFER_TIME) {
+                transferTime = transfer;
+                transferTimeLog.append(transferTime);
+            }
+        } else {
+            boolean reversed = topBeltDirection == Direction.REVERSE;
+            state.onTopExited(edge.timestamp, reversed);
+
+            if (!reversed) {
+                feed.onShot(edge.timestamp);
+            }
+
+            if (!Double.isNaN(topEntry)) {
+                topTime = edge.timestamp - topEntry;
+                topTimeLog.append(topTime);
+            }
+        }
+    }
+
+    // goes through every edge since the last cycle in the order they happened
+    private void readEdges() {
+        while (true) {
+            BeamBreak.Edge gandalf = gandalfIRSensor.peek();
+            BeamBreak.Edge top = topIRSensor.peek();
+
+            if (gandalf == null && top == null) {
+                break;
+            }
+
+            if (top == null || (gandalf != null && gandalf.timestamp <= top.timestamp)) {
+                state.advance(gandalf.timestamp, getTopBeltRate());
+                onGandalfEdge(gandalfIRSensor.poll());
+            } else {
+                state.advance(top.timestamp, getTopBeltRate());
+                onTopEdge(topIRSensor.poll());
+            }
+        }
+    }
+
+    // an edge could have been dropped, or a ball was there before the robot turned on, so
+    // if a beam break disagrees with the queue for a whole cycle the queue follows the sensor
+    // (this uses what the sensor thread sampled, which can be a little behind the edges)
+    private void checkEdges(double time) {
+        boolean gandalfBlocked = hasAnyBall();
+        boolean topBlocked = hasTopBeltBall();
+
+        boolean gandalfWrong = gandalfBlocked != state.has(Slot.GANDALF);
+        boolean topWrong = topBlocked != state.has(Slot.TOP_BELT);
+
+        if (gandalfWrong && gandalfMismatch) {
+            state.setBlocked(Slot.GANDALF, gandalfBlocked, time);
+        }
+
+        if (topWrong && topMismatch) {
+            state.setBlocked(Slot.TOP_BELT, topBlocked, time);
+        }
+
+        gandalfMismatch = gandalfWrong;
+        topMismatch = topWrong;
+    }
+
+    private void updateState() {
+        readEdges();
+
+        double now = Timer.getFPGATimestamp();
+        state.advance(now, getTopBeltRate());
+        checkEdges(now);
+        feed.update(now);
+
+        if (colorSensor.hasAllianceBall()) {
+            state.setColor(Slot.GANDALF, colorSensor.getTargetBall());
+        } else if (colorSensor.hasOpponentBall()) {
+            state.setColor(Slot.GANDALF, getOpponentBall());
+        }
+    }
+
     /*** SENSOR INFORMATION ***/
 
     /** Finds if the upper IR Sensor has been tripped e.g., there is a ball in the top conveyor */
     public boolean hasTopBeltBall() {
-        return !topIRSensor.get();
+        return topBeltBall;
     }
 
     public boolean hasAnyBall() {
@@ -178,14 +333,52 @@ public class Conveyor extends SubsystemBase {
         return colorSensor.hasOpponentBall();
     }
 
-    public boolean hasNewBall() {
-        return newBall.get();
+    /*** BALL QUEUE ***/
+
+    public ConveyorState getState() {
+        return state;
+    }
+
+    private BallColor getOpponentBall() {
+        return colorSensor.getTargetBall() == BallColor.RED_BALL
+                ? BallColor.BLUE_BALL
+                : BallColor.RED_BALL;
+    }
+
+    public boolean isAllianceBall(ConveyorState.Ball ball) {
+        return ball != null && ball.getColor() == colorSensor.getTargetBall();
+    }
+
+    public boolean isOpponentBall(ConveyorState.Ball ball) {
+        return ball != null && ball.getColor() == getOpponentBall();
+    }
+
+    public int getBallCount() {
+        return state.getCount();
+    }
+
+    /** how long until the next ball leaves the top belt if it runs forward */
+    public double getTimeToShooter() {
+        return state.getTimeToShooter();
+    }
+
+    /*** FEEDING ***/
+
+    public FeedScheduler getFeed() {
+        return feed;
+    }
+
+    /** if the next ball can be fed, with the top belt running slow like in SEMI_AUTO */
+    public boolean isFeedReady() {
+        double timeToShooter = getTimeToShooter() / Settings.Conveyor.SLOW_MUL.get();
+        return feed.isReady(Timer.getFPGATimestamp(), timeToShooter);
     }
 
     /*** AUTOMATIC RETRACTION ***/
 
+    /** if every ball has left the conveyor and made it into the shooter */
     public boolean isEmpty() {
-        return empty.get();
+        return state.isEmpty();
     }
 
     public boolean isFull() {
@@ -196,12 +389,29 @@ public class Conveyor extends SubsystemBase {
 
     @Override
     public void periodic() {
+        updateState();
         mode.run(this);
 
         if (Settings.DEBUG_MODE.get()) {
             SmartDashboard.putNumber("Debug/Conveyor/Top Belt", topBeltMotor.get());
             SmartDashboard.putNumber("Debug/Conveyor/Gandalf Motor", gandalfMotor.get());
             SmartDashboard.putBoolean("Debug/Conveyor/Top IR", hasTopBeltBall());
+
+            SmartDashboard.putNumber("Debug/Conveyor/Gandalf Time", gandalfTime);
+            SmartDashboard.putNumber("Debug/Conveyor/Transfer Time", transferTime);
+            SmartDashboard.putNumber("Debug/Conveyor/Top Belt Time", topTime);
+            SmartDashboard.putNumber("Debug/Conveyor/Ball Count", getBallCount());
+            SmartDashboard.putNumber("Debug/Conveyor/Time To Shooter", getTimeToShooter());
+            SmartDashboard.putNumber(
+                    "Debug/Conveyor/Transfer Travel", state.getTransferTravel());
+            SmartDashboard.putNumber("Debug/Conveyor/Top Belt Travel", state.getTopBeltTravel());
+            SmartDashboard.putBoolean("Debug/Conveyor/Feed Ready", isFeedReady());
+            SmartDashboard.putNumber("Debug/Conveyor/Recovery Time", feed.getRecoveryTime());
+            SmartDashboard.putNumber(
+                    "Debug/Conveyor/Last Recovery Time", feed.getLastRecoveryTime());
+            SmartDashboard.putNumber(
+                    "Debug/Conveyor/Dropped Edges",
+                    topIRSensor.getDropped() + gandalfIRSensor.getDropped());
         }
     }
 }
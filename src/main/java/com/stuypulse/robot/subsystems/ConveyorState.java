@@ -0,0 +1,293 @@
+/************************ PROJECT DORCAS ************************/
+/* Copyright (c) 2022 StuyPulse Robotics. All rights reserved.  */
+/* This work is licensed under the terms of the MIT license.    */
+/****************************************************************/
+
+package com.stuypulse.robot.subsystems;
+
+import com.stuypulse.robot.constants.Settings;
+import com.stuypulse.robot.subsystems.ColorSensor.BallColor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/*-
+ * Keeps track of every ball in the conveyor and where it is.
+ *
+ * A ball can be in one of four places, in order from the intake to the shooter:
+ *      - GANDALF: in front of the color sensor, waiting to be accepted or rejected
+ *      - TRANSFER: between the gandalf and the top belt IR sensor
+ *      - TOP_BELT: in front of the top belt IR sensor, waiting to be shot
+ *      - SHOOTER: past the top belt, on its way into the flywheel
+ *
+ * Balls move between places on the edges of the beam breaks, and in between edges the
+ * queue follows how far the top belt has moved them. Distances are measured in seconds
+ * of travel with the top belt running forward, and the distance between each sensor is
+ * updated every time a ball makes it there, so the queue can predict how long the next
+ * ball will take to reach the shooter.
+ *
+ * Only the Conveyor can change the queue, everyone else gets read-only access.
+ */
+public class ConveyorState {
+
+    public enum Slot {
+        GANDALF,
+        TRANSFER,
+        TOP_BELT,
+        SHOOTER
+    }
+
+    /** A ball in the conveyor */
+    public static class Ball {
+        // Null until the color sensor has decided
+        BallColor color;
+        Slot slot;
+
+        // FPGA time the ball got to its slot
+        double entered;
+
+        // How far the ball has moved through its slot (s of travel)
+        double travel;
+
+        Ball(Slot slot, double entered) {
+            this.color = null;
+            this.slot = slot;
+            this.entered = entered;
+            this.travel = 0.0;
+        }
+
+        public BallColor getColor() {
+            return color;
+        }
+
+        public Slot getSlot() {
+            return slot;
+        }
+
+        public double getEntered() {
+            return entered;
+        }
+
+        public double getTravel() {
+            return travel;
+        }
+    }
+
+    // Ordered from the shooter to the intake
+    private final List<Ball> balls;
+
+    // FPGA time the queue was last moved to, and how fast the top belt was moving
+    private double timestamp;
+    private double topBeltRate;
+
+    // How far balls travel from the gandalf to the top belt, and from the top belt out
+    private double transferTravel;
+    private double topBeltTravel;
+
+    ConveyorState() {
+        balls = new ArrayList<>();
+
+        timestamp = Double.NaN;
+        topBeltRate = 0.0;
+
+        transferTravel = Settings.Conveyor.TRANSFER_TRAVEL;
+        topBeltTravel = Settings.Conveyor.TOP_BELT_TRAVEL;
+    }
+
+    /*** MOVEMENT ***/
+
+    private static double learn(double current, double measured) {
+        return current + (measured - current) * Settings.Conveyor.TRAVEL_LEARNING_RATE;
+    }
+
+    /** moves every ball forward to the given time, rate is the top belt speed (1 = FORWARD) */
+    void advance(double time, double rate) {
+        if (!Double.isNaN(timestamp) && time > timestamp) {
+            double dt = time - timestamp;
+
+            for (Ball ball : balls) {
+                if (ball.slot == Slot.TRANSFER || ball.slot == Slot.TOP_BELT) {
+                    ball.travel += rate * dt;
+                }
+            }
+        }
+
+        for (int i = balls.size() - 1; i >= 0; --i) {
+            Ball ball = balls.get(i);
+            double elapsed = time - ball.entered;
+
+            // balls that went into the flywheel are gone
+            if (ball.slot == Slot.SHOOTER && elapsed > Settings.Conveyor.SHOOTER_TIME) {
+                balls.remove(i);
+            }
+
+            // no sensor can see a ball between the beam breaks, so one that never made it
+            // to the other side has to be forgotten or the conveyor will never be empty
+            else if (ball.slot == Slot.TRANSFER && elapsed > Settings.Conveyor.MAX_TRANSFER_TIME) {
+                balls.remove(i);
+            }
+        }
+
+        if (Double.isNaN(timestamp) || time > timestamp) {
+            timestamp = time;
+        }
+        topBeltRate = rate;
+    }
+
+    // puts a ball in the right place in the queue for its slot
+    private void insert(Ball ball) {
+        int index = 0;
+        while (index < balls.size() && balls.get(index).slot.compareTo(ball.slot) >= 0) {
+            index++;
+        }
+        balls.add(index, ball);
+    }
+
+    /*** BEAM BREAK EDGES ***/
+
+    void onGandalfEntered(double time) {
+        // a ball being run back down the conveyor
+        Ball back = getLast(Slot.TRANSFER);
+        if (back != null && topBeltRate < 0.0 && back.travel < 0.5 * transferTravel) {
+            back.slot = Slot.GANDALF;
+            back.entered = time;
+            back.travel = 0.0;
+        } else if (!has(Slot.GANDALF)) {
+            insert(new Ball(Slot.GANDALF, time));
+        }
+    }
+
+    /** accepted is if the gandalf was pushing the ball up, otherwise it left another way */
+    void onGandalfExited(double time, boolean accepted) {
+        Ball ball = getBall(Slot.GANDALF);
+        if (ball == null) {
+            return;
+        }
+
+        if (!accepted) {
+            balls.remove(ball);
+        } else {
+            ball.slot = Slot.TRANSFER;
+            ball.entered = time;
+            ball.travel = 0.0;
+        }
+    }
+
+    void onTopEntered(double time) {
+        Ball ball = getBall(Slot.TRANSFER);
+
+        if (ball == null) {
+            insert(new Ball(Slot.TOP_BELT, time));
+            return;
+        }
+
+        if (ball.travel > 0.0) {
+            transferTravel = learn(transferTravel, ball.travel);
+        }
+
+        ball.slot = Slot.TOP_BELT;
+        ball.entered = time;
+        ball.travel = 0.0;
+    }
+
+    void onTopExited(double time, boolean reversed) {
+        Ball ball = getBall(Slot.TOP_BELT);
+        if (ball == null) {
+            return;
+        }
+
+        if (reversed) {
+            ball.slot = Slot.TRANSFER;
+            ball.entered = time;
+            ball.travel = transferTravel;
+        } else {
+            if (ball.travel > 0.0) {
+                topBeltTravel = learn(topBeltTravel, ball.travel);
+            }
+
+            ball.slot = Slot.SHOOTER;
+            ball.entered = time;
+            ball.travel = 0.0;
+        }
+    }
+
+    /** makes a slot match its beam break, for when an edge was missed */
+    void setBlocked(Slot slot, boolean blocked, double time) {
+        Ball ball = getBall(slot);
+
+        if (blocked && ball == null) {
+            insert(new Ball(slot, time));
+        } else if (!blocked && ball != null) {
+            balls.remove(ball);
+        }
+    }
+
+    void setColor(Slot slot, BallColor color) {
+        Ball ball = getBall(slot);
+        if (ball != null) {
+            ball.color = color;
+        }
+    }
+
+    /*** QUEUE INFORMATION ***/
+
+    /** returns the ball closest to the shooter in a slot, or null if there are none */
+    public Ball getBall(Slot slot) {
+        for (Ball ball : balls) {
+            if (ball.slot == slot) {
+                return ball;
+            }
+        }
+        return null;
+    }
+
+    private Ball getLast(Slot slot) {
+        for (int i = balls.size() - 1; i >= 0; --i) {
+            if (balls.get(i).slot == slot) {
+                return balls.get(i);
+            }
+        }
+        return null;
+    }
+
+    public boolean has(Slot slot) {
+        return getBall(slot) != null;
+    }
+
+    public int getCount() {
+        return balls.size();
+    }
+
+    public boolean isEmpty() {
+        return balls.isEmpty();
+    }
+
+    public double getTransferTravel() {
+        return transferTravel;
+    }
+
+    public double getTopBeltTravel() {
+        return topBeltTravel;
+    }
+
+    /**
+     * returns how long the next ball will take to leave the top belt with it running forward,
+     * or infinity if there is no ball on the way
+     */
+    public double getTimeToShooter() {
+        for (Ball ball : balls) {
+            switch (ball.slot) {
+                case SHOOTER:
+                    continue;
+                case TOP_BELT:
+                    return Math.max(0.0, topBeltTravel - ball.travel);
+                case TRANSFER:
+                    return Math.max(0.0, transferTravel - ball.travel) + topBeltTravel;
+                case GANDALF:
+                    return transferTravel + topBeltTravel;
+            }
+        }
+
+        return Double.POSITIVE_INFINITY;
+    }
+}
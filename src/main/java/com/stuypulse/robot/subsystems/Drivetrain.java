@@ -12,17 +12,23 @@ import com.stuypulse.robot.constants.Motors;
 import com.stuypulse.robot.constants.Ports;
 import com.stuypulse.robot.constants.Settings;
 import com.stuypulse.robot.constants.Settings.Drivetrain.*;
+import com.stuypulse.robot.util.PoseHistory;
+import com.stuypulse.robot.util.sim.SimDrivetrain;
 
 import edu.wpi.first.math.geometry.Pose2d;
 import edu.wpi.first.math.geometry.Rotation2d;
+import edu.wpi.first.math.geometry.Translation2d;
 import edu.wpi.first.math.kinematics.DifferentialDriveOdometry;
 import edu.wpi.first.math.kinematics.DifferentialDriveWheelSpeeds;
 import edu.wpi.first.wpilibj.DoubleSolenoid;
 import edu.wpi.first.wpilibj.DoubleSolenoid.Value;
 import edu.wpi.first.wpilibj.Encoder;
+import edu.wpi.first.wpilibj.Notifier;
 import edu.wpi.first.wpilibj.PneumaticsModuleType;
+import edu.wpi.first.wpilibj.RobotBase;
 import edu.wpi.first.wpilibj.RobotController;
 import edu.wpi.first.wpilibj.SPI;
+import edu.wpi.first.wpilibj.Timer;
 import edu.wpi.first.wpilibj.drive.DifferentialDrive;
 import edu.wpi.first.wpilibj.motorcontrol.MotorController;
 import edu.wpi.first.wpilibj.motorcontrol.MotorControllerGroup;
@@ -87,8 +93,21 @@ public class Drivetrain extends SubsystemBase {
     // NAVX for Gyro
     private final AHRS navx;
 
-    // Odometry
+    // Physics used instead of the real robot when simulating (null on the robot)
+    private final SimDrivetrain sim;
+    private double lastSimTime;
+
+    // Sensor readings for the current cycle
+    private final DrivetrainState state;
+
+    // Odometry (updated on its own thread)
     private final DifferentialDriveOdometry odometry;
+    private final PoseHistory poseHistory;
+    private final Notifier odometryThread;
+
+    // Correction from the odometry to the field, set by the PoseEstimator using vision
+    private volatile Translation2d visionOffset;
+    private double resetTimestamp;
     private final Field2d field;
 
     public Drivetrain() {
@@ -128,6 +147,25 @@ public class Drivetrain extends SubsystemBase {
         // Initialize NAVX
         navx = new AHRS(SPI.Port.kMXP);
 
+        // Simulate the drivetrain behind the encoders and gyro
+        if (RobotBase.isSimulation()) {
+            sim = new SimDrivetrain(leftGrayhill, rightGrayhill);
+            lastSimTime = Timer.getFPGATimestamp();
+        } else {
+            sim = null;
+        }
+
+        // No vision correction until the PoseEstimator finds the field
+        visionOffset = new Translation2d();
+        resetTimestamp = 0.0;
+
+        // Create the pose history and take the first snapshot of the sensors
+        poseHistory =
+                new PoseHistory(
+                        (int) Math.ceil(Odometry.HISTORY_LENGTH / Odometry.UPDATE_PERIOD));
+        state = new DrivetrainState();
+        updateState();
+
         // Initialize Odometry
         odometry = new DifferentialDriveOdometry(getRotation2d());
         field = new Field2d();
@@ -136,6 +174,11 @@ public class Drivetrain extends SubsystemBase {
         // Configure Motors and Other Things
         setMotorConfig(Motors.Drivetrain.LEFT, Motors.Drivetrain.RIGHT);
         setHighGear();
+
+        // Start updating odometry in the background
+        odometryThread = new Notifier(this::updateOdometry);
+        odometryThread.setName("Odometry");
+        odometryThread.startPeriodic(Odometry.UPDATE_PERIOD);
     }
 
     /***********************
@@ -189,17 +232,60 @@ public class Drivetrain extends SubsystemBase {
         setGear(Gear.HIGH);
     }
 
+    /*******************
+     * SENSOR SNAPSHOT *
+     *******************/
+
+    // Reads every sensor once and stores it for the rest of the cycle
+    private void updateState() {
+        state.timestamp = Timer.getFPGATimestamp();
+
+        state.leftDistance = leftGrayhill.getDistance();
+        state.rightDistance = rightGrayhill.getDistance();
+
+        state.leftVelocity = leftGrayhill.getRate();
+        state.rightVelocity = rightGrayhill.getRate();
+
+        state.gyroAngle = readGyroAngle();
+        state.roll = navx.getRoll();
+
+        state.leftOutput = leftMotors[0].get();
+        state.rightOutput = rightMotors[0].get();
+
+        state.leftCurrent = getAverageCurrent(leftMotors);
+        state.rightCurrent = getAverageCurrent(rightMotors);
+
+        state.batteryVoltage = RobotController.getBatteryVoltage();
+
+        state.pose = addVisionOffset(poseHistory.getLatestPose());
+    }
+
+    private static double getAverageCurrent(CANSparkMax[] motors) {
+        double amps = 0.0;
+
+        for (CANSparkMax motor : motors) {
+            amps += Math.abs(motor.getOutputCurrent());
+        }
+
+        return amps / motors.length;
+    }
+
+    // Gets the sensor readings taken at the start of this cycle
+    public DrivetrainState getState() {
+        return state;
+    }
+
     /*********************
      * ENCODER FUNCTIONS *
      *********************/
 
     // Distance
     public double getLeftDistance() {
-        return leftGrayhill.getDistance();
+        return state.getLeftDistance();
     }
 
     public double getRightDistance() {
-        return rightGrayhill.getDistance();
+        return state.getRightDistance();
     }
 
     public double getDistance() {
@@ -208,11 +294,11 @@ public class Drivetrain extends SubsystemBase {
 
     // Velocity
     public double getLeftVelocity() {
-        return leftGrayhill.getRate();
+        return state.getLeftVelocity();
     }
 
     public double getRightVelocity() {
-        return rightGrayhill.getRate();
+        return state.getRightVelocity();
     }
 
     public double getVelocity() {
@@ -225,7 +311,7 @@ public class Drivetrain extends SubsystemBase {
 
     // Gets current Angle of the Robot as a double (contiuous / not +-180)
     public double getRawGyroAngle() {
-        return navx.getAngle();
+        return state.getGyroAngle();
     }
 
     // Gets current Angle of the Robot
@@ -235,7 +321,11 @@ public class Drivetrain extends SubsystemBase {
 
     // Gets current Angle of the Robot as a double [using encoders] (contiuous / not +-180)
     private double getRawEncoderAngle() {
-        double distance = getLeftDistance() - getRightDistance();
+        return getRawEncoderAngle(getLeftDistance(), getRightDistance());
+    }
+
+    private static double getRawEncoderAngle(double leftDistance, double rightDistance) {
+        double distance = leftDistance - rightDistance;
         return Math.toDegrees(distance / Settings.Drivetrain.TRACK_WIDTH);
     }
 
@@ -248,16 +338,41 @@ public class Drivetrain extends SubsystemBase {
         return Settings.Drivetrain.USING_GYRO ? getGyroAngle() : getEncoderAngle();
     }
 
+    // Gets how much getRawGyroAngle() has changed since an FPGA timestamp (ie. when a camera frame
+    // was taken), which turns an angle measured back then into one relative to the robot now
+    public double getGyroAngleChangeSince(double timestamp) {
+        // the gyro is clockwise positive while odometry is counter clockwise positive
+        Rotation2d turned = getPose().getRotation().minus(getPoseAt(timestamp).getRotation());
+        return -turned.getDegrees();
+    }
+
     public Angle getRoll() {
-        return Angle.fromDegrees(navx.getRoll());
+        return Angle.fromDegrees(state.getRoll());
+    }
+
+    // Reads the NavX directly, or the simulated heading when simulating
+    private double readGyroAngle() {
+        return sim == null ? navx.getAngle() : sim.getGyroAngle();
     }
 
     /**********************
      * ODOMETRY FUNCTIONS *
      **********************/
 
+    // Runs on the odometry thread, so it reads the sensors directly instead of the snapshot
     private void updateOdometry() {
-        odometry.update(getRotation2d(), getLeftDistance(), getRightDistance());
+        synchronized (odometry) {
+            double left = leftGrayhill.getDistance();
+            double right = rightGrayhill.getDistance();
+
+            double angle =
+                    Settings.Drivetrain.USING_GYRO
+                            ? readGyroAngle()
+                            : getRawEncoderAngle(left, right);
+
+            Pose2d pose = odometry.update(Rotation2d.fromDegrees(-angle), left, right);
+            poseHistory.addSample(Timer.getFPGATimestamp(), pose);
+        }
     }
 
     public DifferentialDriveWheelSpeeds getWheelSpeeds() {
@@ -269,9 +384,42 @@ public class Drivetrain extends SubsystemBase {
         return getAngle().negative().getRotation2d();
     }
 
+    private Pose2d addVisionOffset(Pose2d odometry) {
+        return new Pose2d(odometry.getTranslation().plus(visionOffset), odometry.getRotation());
+    }
+
+    // Gets where the robot is, including the correction from vision
     public Pose2d getPose() {
-        updateOdometry();
-        return odometry.getPoseMeters();
+        return state.getPose();
+    }
+
+    // Gets where the robot was at a specific FPGA timestamp (ie. when a sensor reading was taken)
+    public Pose2d getPoseAt(double timestamp) {
+        return addVisionOffset(getOdometryPoseAt(timestamp));
+    }
+
+    // Gets where odometry alone thinks the robot is, without the correction from vision
+    public Pose2d getOdometryPose() {
+        return poseHistory.getLatestPose();
+    }
+
+    // Gets where odometry alone thought the robot was at a specific FPGA timestamp
+    public Pose2d getOdometryPoseAt(double timestamp) {
+        return poseHistory.getPoseAt(timestamp);
+    }
+
+    // Moves every pose from odometry by an offset, so they line up with the field
+    public void setVisionOffset(Translation2d offset) {
+        visionOffset = offset;
+    }
+
+    public Translation2d getVisionOffset() {
+        return visionOffset;
+    }
+
+    // When the odometry was last reset, which also clears the vision offset
+    public double getResetTimestamp() {
+        return resetTimestamp;
     }
 
     public Field2d getField() {
@@ -283,11 +431,29 @@ public class Drivetrain extends SubsystemBase {
      ************************/
 
     public void reset(Pose2d location) {
-        navx.reset();
-        leftGrayhill.reset();
-        rightGrayhill.reset();
+        synchronized (odometry) {
+            navx.reset();
+            leftGrayhill.reset();
+            rightGrayhill.reset();
+
+            if (sim != null) {
+                sim.resetGyro();
+                sim.resetEncoders();
+            }
+
+            // Resample so the rest of the cycle sees the reset sensors
+            updateState();
+
+            odometry.resetPosition(location, getRotation2d());
+
+            poseHistory.clear();
+            poseHistory.addSample(state.getTimestamp(), location);
+            state.pose = location;
 
-        odometry.resetPosition(location, getRotation2d());
+            // the location is where we are now, so vision has to find the field again
+            visionOffset = new Translation2d();
+            resetTimestamp = state.getTimestamp();
+        }
     }
 
     public void reset() {
@@ -299,15 +465,15 @@ public class Drivetrain extends SubsystemBase {
      *********************/
 
     public double getBatteryVoltage() {
-        return RobotController.getBatteryVoltage();
+        return state.getBatteryVoltage();
     }
 
     public double getLeftVoltage() {
-        return leftMotors[0].get() * getBatteryVoltage();
+        return state.getLeftOutput() * getBatteryVoltage();
     }
 
     public double getRightVoltage() {
-        return rightMotors[0].get() * getBatteryVoltage();
+        return state.getRightOutput() * getBatteryVoltage();
     }
 
     public void tankDriveVolts(double leftVolts, double rightVolts) {
@@ -327,23 +493,11 @@ public class Drivetrain extends SubsystemBase {
      *******************/
 
     public double getLeftCurrentAmps() {
-        double amps = 0.0;
-
-        for (CANSparkMax motor : leftMotors) {
-            amps += Math.abs(motor.getOutputCurrent());
-        }
-
-        return amps / leftMotors.length;
+        return state.getLeftCurrent();
     }
 
     public double getRightCurrentAmps() {
-        double amps = 0.0;
-
-        for (CANSparkMax motor : rightMotors) {
-            amps += Math.abs(motor.getOutputCurrent());
-        }
-
-        return amps / rightMotors.length;
+        return state.getRightCurrent();
     }
 
     public double getCurrentAmps() {
@@ -353,7 +507,7 @@ public class Drivetrain extends SubsystemBase {
     public boolean isLeftStalling() {
         boolean highGear = getGear() == Gear.HIGH;
         boolean current = getLeftCurrentAmps() > Stalling.CURRENT_THRESHOLD;
-        boolean output = Math.abs(leftMotors[0].get()) > Stalling.DUTY_CYCLE_THRESHOLD;
+        boolean output = Math.abs(state.getLeftOutput()) > Stalling.DUTY_CYCLE_THRESHOLD;
         boolean velocity = Math.abs(getLeftVelocity()) < Stalling.SCIBORGS_THRESHOLD;
         return highGear && (current || output) && velocity;
     }
@@ -361,7 +515,7 @@ public class Drivetrain extends SubsystemBase {
     public boolean isRightStalling() {
         boolean highGear = getGear() == Gear.HIGH;
         boolean current = getRightCurrentAmps() > Stalling.CURRENT_THRESHOLD;
-        boolean output = Math.abs(rightMotors[0].get()) > Stalling.DUTY_CYCLE_THRESHOLD;
+        boolean output = Math.abs(state.getRightOutput()) > Stalling.DUTY_CYCLE_THRESHOLD;
         boolean velocity = Math.abs(getRightVelocity()) < Stalling.SCIBORGS_THRESHOLD;
         return highGear && (current || output) && velocity;
     }
@@ -421,13 +575,35 @@ public class Drivetrain extends SubsystemBase {
         this.curvatureDrive(xSpeed, zRotation, Settings.Drivetrain.BASE_TURNING_SPEED.get());
     }
 
+    /**************
+     * SIMULATION *
+     **************/
+
+    @Override
+    public void simulationPeriodic() {
+        double now = Timer.getFPGATimestamp();
+        double dt = now - lastSimTime;
+        lastSimTime = now;
+
+        // motors only remember their duty cycle, so turn it back into volts
+        double battery = RobotController.getBatteryVoltage();
+        double leftVolts = leftMotors[0].get() * battery;
+        double rightVolts = rightMotors[0].get() * battery;
+
+        // keep the odometry thread from reading half of an update
+        synchronized (odometry) {
+            sim.update(leftVolts, rightVolts, getGear() == Gear.HIGH, dt);
+        }
+    }
+
     /*********************
      * DEBUG INFORMATION *
      *********************/
 
     @Override
     public void periodic() {
-        updateOdometry();
+        updateState();
+
         field.setRobotPose(getPose());
 
         // Smart Dashboard Information
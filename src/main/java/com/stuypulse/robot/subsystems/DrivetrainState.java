@@ -0,0 +1,112 @@
+/************************ PROJECT DORCAS ************************/
+/* Copyright (c) 2022 StuyPulse Robotics. All rights reserved.  */
+/* This work is licensed under the terms of the MIT license.    */
+/****************************************************************/
+
+package com.stuypulse.robot.subsystems;
+
+import edu.wpi.first.math.geometry.Pose2d;
+
+/**
+ * A snapshot of every drivetrain sensor, taken once at the start of each robot cycle.
+ *
+ * <p>The Drivetrain owns a single preallocated instance of this class and overwrites it in place
+ * every cycle, so reading the encoders, NavX and motor currents only happens once per loop and
+ * every command running in that loop sees the exact same state of the robot.
+ *
+ * <p>Only the Drivetrain can write to the snapshot, everyone else gets read-only access.
+ */
+public class DrivetrainState {
+
+    // FPGA time when the snapshot was taken
+    double timestamp;
+
+    // Grayhill encoders
+    double leftDistance;
+    double rightDistance;
+
+    double leftVelocity;
+    double rightVelocity;
+
+    // NavX
+    double gyroAngle;
+    double roll;
+
+    // Motors
+    double leftOutput;
+    double rightOutput;
+
+    double leftCurrent;
+    double rightCurrent;
+
+    double batteryVoltage;
+
+    // Odometry
+    Pose2d pose;
+
+    DrivetrainState() {
+        pose = new Pose2d();
+    }
+
+    /*** TIMESTAMP ***/
+
+    public double getTimestamp() {
+        return timestamp;
+    }
+
+    /*** ENCODERS ***/
+
+    public double getLeftDistance() {
+        return leftDistance;
+    }
+
+    public double getRightDistance() {
+        return rightDistance;
+    }
+
+    public double getLeftVelocity() {
+        return leftVelocity;
+    }
+
+    public double getRightVelocity() {
+        return rightVelocity;
+    }
+
+    /*** GYRO ***/
+
+    public double getGyroAngle() {
+        return gyroAngle;
+    }
+
+    public double getRoll() {
+        return roll;
+    }
+
+    /*** MOTORS ***/
+
+    public double getLeftOutput() {
+        return leftOutput;
+    }
+
+    public double getRightOutput() {
+        return rightOutput;
+    }
+
+    public double getLeftCurrent() {
+        return leftCurrent;
+    }
+
+    public double getRightCurrent() {
+        return rightCurrent;
+    }
+
+    public double getBatteryVoltage() {
+        return batteryVoltage;
+    }
+
+    /*** ODOMETRY ***/
+
+    public Pose2d getPose() {
+        return pose;
+    }
+}
@@ -0,0 +1,128 @@
+/************************ PROJECT DORCAS ************************/
+/* Copyright (c) 2022 StuyPulse Robotics. All rights reserved.  */
+/* This work is licensed under the terms of the MIT license.    */
+/****************************************************************/
+
+package com.stuypulse.robot.subsystems;
+
+import com.stuypulse.robot.constants.Settings;
+import com.stuypulse.robot.constants.Settings.Conveyor.Feed;
+
+import edu.wpi.first.util.datalog.DoubleLogEntry;
+import edu.wpi.first.wpilibj.DataLogManager;
+
+/*-
+ * Decides when the next ball can be fed into the shooter.
+ *
+ * Every shot slows the flywheel down, and a ball fed in before it speeds back up will
+ * fall short. After each shot this watches the shooter RPM drop and come back within
+ * tolerance of the target, and the next ball is let go as soon as that happens.
+ *
+ * It also remembers how long the flywheel has been taking to recover, so the next
+ * ball can be started early enough that it reaches the flywheel right as it should
+ * be back up to speed, instead of waiting for the RPM to settle and then for the ball
+ * to travel up the belt.
+ *
+ * Every recovery is logged so the shooter and feed speeds can be tuned.
+ */
+public class FeedScheduler {
+
+    private final Shooter shooter;
+
+    private final DoubleLogEntry recoveryLog;
+    private final DoubleLogEntry dropLog;
+
+    // FPGA time of the last shot, NaN once the flywheel has recovered
+    private double shotTime;
+
+    // If the shot has slowed the flywheel down yet, and how far
+    private boolean dropped;
+    private double maxDrop;
+
+    // How long the flywheel should take to recover from a shot
+    private double recoveryTime;
+    private double lastRecoveryTime;
+
+    FeedScheduler(Shooter shooter) {
+        this.shooter = shooter;
+
+        this.recoveryLog = new DoubleLogEntry(DataLogManager.getLog(), "Conveyor/Recovery Time");
+        this.dropLog = new DoubleLogEntry(DataLogManager.getLog(), "Conveyor/Recovery Drop");
+
+        this.shotTime = Double.NaN;
+        this.dropped = false;
+        this.maxDrop = 0.0;
+
+        this.recoveryTime = Feed.RECOVERY_TIME;
+        this.lastRecoveryTime = Double.NaN;
+    }
+
+    /*** SHOTS ***/
+
+    /** called when a ball leaves the top belt into the shooter */
+    void onShot(double time) {
+        shotTime = time;
+        dropped = false;
+        maxDrop = 0.0;
+    }
+
+    void update(double time) {
+        if (!isRecovering()) {
+            return;
+        }
+
+        // nothing to recover to if the shooter is off
+        if (shooter.getRawTargetRPM() < Settings.Shooter.MIN_RPM) {
+            shotTime = Double.NaN;
+            return;
+        }
+
+        double elapsed = time - shotTime;
+
+        // the ball has to hit the flywheel and slow it down before it can recover
+        if (!shooter.isReady()) {
+            dropped = true;
+            maxDrop = Math.max(maxDrop, shooter.getRawTargetRPM() - shooter.getShooterRPM());
+        } else if (dropped) {
+            lastRecoveryTime = elapsed;
+            recoveryLog.append(elapsed);
+            dropLog.append(maxDrop);
+
+            recoveryTime += (elapsed - recoveryTime) * Feed.RECOVERY_LEARNING_RATE;
+            shotTime = Double.NaN;
+            return;
+        }
+
+        // something went wrong with this shot, so don't learn from it
+        if (elapsed > Feed.MAX_RECOVERY_TIME) {
+            shotTime = Double.NaN;
+        }
+    }
+
+    /*** FEEDING ***/
+
+    public boolean isRecovering() {
+        return !Double.isNaN(shotTime);
+    }
+
+    /**
+     * returns if the next ball can be sent, given how long it will take to get to the shooter.
+     * This is either once the flywheel has recovered, or when the ball would get there right
+     * as the flywheel is expected to recover.
+     */
+    public boolean isReady(double time, double timeToShooter) {
+        if (!isRecovering()) {
+            return true;
+        }
+
+        return time + timeToShooter >= shotTime + recoveryTime;
+    }
+
+    public double getRecoveryTime() {
+        return recoveryTime;
+    }
+
+    public double getLastRecoveryTime() {
+        return lastRecoveryTime;
+    }
+}
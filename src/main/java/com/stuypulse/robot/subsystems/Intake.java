@@ -82,6 +82,10 @@ public class Intake extends SubsystemBase {
         solenoid.set(Value.kReverse);
     }
 
+    public boolean isExtended() {
+        return solenoid.get() == Value.kForward;
+    }
+
     /*** Acquire / Deaqcuire ***/
     public void setMotor(double speed) {
         this.speed = speed;
@@ -91,6 +95,11 @@ public class Intake extends SubsystemBase {
         this.speed = 0.0;
     }
 
+    // Speed the rollers are actually spinning at (after filtering and the conveyor checks)
+    public double getMotorSpeed() {
+        return motor.get();
+    }
+
     public void acquire() {
         this.speed = +Settings.Intake.ACQUIRE_SPEED.get();
     }
@@ -140,8 +149,8 @@ public class Intake extends SubsystemBase {
         }
 
         if (Settings.DEBUG_MODE.get()) {
-            SmartDashboard.putNumber("Debug/Intake/Motor Speed", motor.get());
-            SmartDashboard.putBoolean("Debug/Intake/Extended", solenoid.get() == Value.kForward);
+            SmartDashboard.putNumber("Debug/Intake/Motor Speed", getMotorSpeed());
+            SmartDashboard.putBoolean("Debug/Intake/Extended", isExtended());
         }
     }
 }
@@ -8,7 +8,11 @@ package com.stuypulse.robot.subsystems;
 import com.stuypulse.stuylib.control.Controller;
 import com.stuypulse.stuylib.math.SLMath;
 
+import com.stuypulse.robot.util.sim.FeedforwardPlant;
+
 import edu.wpi.first.math.controller.SimpleMotorFeedforward;
+import edu.wpi.first.wpilibj.RobotBase;
+import edu.wpi.first.wpilibj.Timer;
 import edu.wpi.first.wpilibj2.command.SubsystemBase;
 
 import java.util.ArrayList;
@@ -37,6 +41,11 @@ public class PIDFlywheel extends SubsystemBase {
     private final SimpleMotorFeedforward feedforward;
     private final Controller feedback;
 
+    // Flywheel physics used when simulating (null on the robot)
+    private final FeedforwardPlant sim;
+    private double simVoltage;
+    private double lastSimTime;
+
     public PIDFlywheel(CANSparkMax motor, SimpleMotorFeedforward feedforward, Controller feedback) {
         this.motors = new ArrayList<>();
         this.encoders = new ArrayList<>();
@@ -46,6 +55,11 @@ public class PIDFlywheel extends SubsystemBase {
 
         this.feedforward = feedforward;
         this.feedback = feedback;
+
+        // The flywheel is simulated with the same model used to control it
+        this.sim = RobotBase.isSimulation() ? new FeedforwardPlant() : null;
+        this.simVoltage = 0.0;
+        this.lastSimTime = Timer.getFPGATimestamp();
     }
 
     public PIDFlywheel addFollower(CANSparkMax follower) {
@@ -63,6 +77,10 @@ public class PIDFlywheel extends SubsystemBase {
     }
 
     public double getVelocity() {
+        if (sim != null) {
+            return sim.getVelocity();
+        }
+
         double velocity = 0.0;
 
         for (RelativeEncoder encoder : this.encoders) {
@@ -77,13 +95,25 @@ public class PIDFlywheel extends SubsystemBase {
             for (CANSparkMax motor : this.motors) {
                 motor.stopMotor();
             }
+
+            simVoltage = 0.0;
         } else {
             double ff = feedforward.calculate(this.targetRPM);
             double fb = feedback.update(this.targetRPM, getVelocity());
 
+            double voltage = SLMath.clamp(ff + fb, 0, 16);
             for (CANSparkMax motor : this.motors) {
-                motor.setVoltage(SLMath.clamp(ff + fb, 0, 16));
+                motor.setVoltage(voltage);
             }
+
+            simVoltage = voltage;
         }
     }
+
+    @Override
+    public void simulationPeriodic() {
+        double now = Timer.getFPGATimestamp();
+        sim.update(simVoltage, feedforward, now - lastSimTime);
+        lastSimTime = now;
+    }
 }
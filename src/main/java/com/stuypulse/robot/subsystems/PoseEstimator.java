@@ -0,0 +1,250 @@
+/************************ PROJECT DORCAS ************************/
+/* Copyright (c) 2022 StuyPulse Robotics. All rights reserved.  */
+/* This work is licensed under the terms of the MIT license.    */
+/****************************************************************/
+
+package com.stuypulse.robot.subsystems;
+
+import com.stuypulse.stuylib.util.StopWatch;
+
+import com.stuypulse.robot.constants.Field;
+import com.stuypulse.robot.constants.Settings;
+import com.stuypulse.robot.constants.Settings.Limelight;
+
+import edu.wpi.first.math.geometry.Pose2d;
+import edu.wpi.first.math.geometry.Translation2d;
+import edu.wpi.first.wpilibj.Timer;
+import edu.wpi.first.wpilibj.smartdashboard.SmartDashboard;
+import edu.wpi.first.wpilibj2.command.SubsystemBase;
+
+/*-
+ * Estimates where the robot is on the field by fusing odometry with the Limelight.
+ *
+ * Odometry is smooth but drifts over time, while the Limelight gives us an absolute
+ * position that is noisy and late. Every time the Limelight sees the hub we:
+ *      - Find the camera's field position using the hub, the target angle and the
+ *        distance to the hub, trusting the gyro for the heading.
+ *      - Compare it to where odometry thought we were when the frame was captured,
+ *        which removes the camera latency from the comparison.
+ *      - Nudge an offset between the odometry and the field towards that difference
+ *        with a complementary (low pass) filter.
+ *
+ * One bad frame should not be able to move the robot, so the first offset is only
+ * trusted once a few frames in a row agree on it, and frames too far from the offset
+ * are ignored. If enough ignored frames in a row agree with each other, the offset was
+ * the thing that was wrong, and it is replaced by them.
+ *
+ * The offset is handed back to the drivetrain, so everything that asks the drivetrain
+ * where the robot is (the ramsete followers, the aligns) gets the corrected pose.
+ */
+public class PoseEstimator extends SubsystemBase {
+
+    private final Camera camera;
+    private final Drivetrain drivetrain;
+
+    // Hub in odometry coordinates
+    private final Translation2d hub;
+
+    // Correction from the odometry to the field
+    private double offsetX;
+    private double offsetY;
+    private boolean hasVisionFix;
+
+    // Frames that do not match the offset, averaged to find the first or a new one
+    private double candidateX;
+    private double candidateY;
+    private int candidateFrames;
+    private long lastFrameId;
+
+    // When the drivetrain last reset odometry, which throws away the offset
+    private double resetTimestamp;
+
+    private Pose2d visionPose;
+    private Pose2d pose;
+
+    // How long each update takes
+    private final StopWatch updateTimer;
+    private double lastUpdateTime;
+    private double updateTime;
+    private double maxUpdateTime;
+
+    public PoseEstimator(Camera camera, Drivetrain drivetrain) {
+        this.camera = camera;
+        this.drivetrain = drivetrain;
+
+        this.hub = Field.toOdometry(Field.Hub.CENTER);
+
+        this.updateTimer = new StopWatch();
+
+        reset();
+    }
+
+    /*** Reset ***/
+
+    // Forget everything vision has told us and trust odometry again
+    public void reset() {
+        offsetX = 0.0;
+        offsetY = 0.0;
+        hasVisionFix = false;
+
+        candidateX = 0.0;
+        candidateY = 0.0;
+        candidateFrames = 0;
+        lastFrameId = camera.getFrame().getId();
+
+        resetTimestamp = drivetrain.getResetTimestamp();
+
+        drivetrain.setVisionOffset(new Translation2d());
+
+        visionPose = null;
+        pose = drivetrain.getPose();
+        lastUpdateTime = Timer.getFPGATimestamp();
+    }
+
+    /*** Pose ***/
+
+    public Pose2d getPose() {
+        return pose;
+    }
+
+    public Translation2d getHub() {
+        return hub;
+    }
+
+    public boolean hasVisionFix() {
+        return hasVisionFix;
+    }
+
+    // How long the last update took (in seconds)
+    public double getUpdateTime() {
+        return updateTime;
+    }
+
+    public double getMaxUpdateTime() {
+        return maxUpdateTime;
+    }
+
+    /*** Vision ***/
+
+    private boolean hasValidTarget() {
+        if (!camera.hasAnyTarget()) {
+            return false;
+        }
+
+        double distance = camera.getDistance();
+        return Limelight.MIN_VALID_DISTANCE < distance && distance < Limelight.MAX_VALID_DISTANCE;
+    }
+
+    // Finds the camera's position on the field given the robot heading when the frame was taken
+    private Translation2d getVisionTranslation(double heading) {
+        // horizontal distance from the limelight to the center of the hub
+        double distance = camera.getDistance() - Limelight.LIMELIGHT_TO_INTAKE;
+
+        // the limelight faces the back of the robot, and the x angle is positive to the right
+        double bearing = heading + Math.PI - camera.getXAngle().toRadians();
+
+        return new Translation2d(
+                hub.getX() - distance * Math.cos(bearing),
+                hub.getY() - distance * Math.sin(bearing));
+    }
+
+    // Averages frames that agree with each other, starting over when one does not
+    private void addCandidate(double errorX, double errorY) {
+        if (candidateFrames > 0
+                && Math.hypot(errorX - candidateX, errorY - candidateY)
+                        > Settings.PoseEstimator.VISION_AGREEMENT.get()) {
+            candidateFrames = 0;
+        }
+
+        candidateFrames++;
+        candidateX += (errorX - candidateX) / candidateFrames;
+        candidateY += (errorY - candidateY) / candidateFrames;
+    }
+
+    private void fuseVision(double dt) {
+        Pose2d captured = drivetrain.getOdometryPoseAt(camera.getCaptureTimestamp());
+
+        Translation2d vision = getVisionTranslation(captured.getRotation().getRadians());
+
+        // how far odometry had drifted when the frame was captured
+        double errorX = vision.getX() - captured.getX();
+        double errorY = vision.getY() - captured.getY();
+
+        // the same frame is seen every loop until the next one arrives
+        long frameId = camera.getFrame().getId();
+        boolean newFrame = frameId != lastFrameId;
+        lastFrameId = frameId;
+
+        if (hasVisionFix
+                && Math.hypot(errorX - offsetX, errorY - offsetY)
+                        < Settings.PoseEstimator.MAX_VISION_ERROR.get()) {
+            double alpha = dt / (Settings.PoseEstimator.VISION_RC.get() + dt);
+
+            offsetX += alpha * (errorX - offsetX);
+            offsetY += alpha * (errorY - offsetY);
+
+            candidateFrames = 0;
+        } else if (newFrame) {
+            addCandidate(errorX, errorY);
+
+            int needed =
+                    hasVisionFix
+                            ? Settings.PoseEstimator.RESEED_FRAMES
+                            : Settings.PoseEstimator.SEED_FRAMES;
+
+            if (candidateFrames >= needed) {
+                offsetX = candidateX;
+                offsetY = candidateY;
+                hasVisionFix = true;
+
+                candidateFrames = 0;
+            }
+        }
+
+        visionPose = new Pose2d(vision, captured.getRotation());
+    }
+
+    /*** Periodic ***/
+
+    @Override
+    public void periodic() {
+        updateTimer.reset();
+
+        double now = Timer.getFPGATimestamp();
+        double dt = now - lastUpdateTime;
+        lastUpdateTime = now;
+
+        // odometry was moved somewhere else, so the old offset no longer means anything
+        if (drivetrain.getResetTimestamp() != resetTimestamp) {
+            reset();
+        }
+
+        if (hasValidTarget()) {
+            fuseVision(dt);
+            drivetrain.setVisionOffset(new Translation2d(offsetX, offsetY));
+        }
+
+        pose = drivetrain.getPose();
+
+        updateTime = updateTimer.reset();
+        maxUpdateTime = Math.max(maxUpdateTime, updateTime);
+
+        drivetrain.getField().getObject("Estimated Pose").setPose(pose);
+
+        if (Settings.DEBUG_MODE.get()) {
+            SmartDashboard.putNumber("Debug/Pose Estimator/X (m)", pose.getX());
+            SmartDashboard.putNumber("Debug/Pose Estimator/Y (m)", pose.getY());
+            SmartDashboard.putNumber("Debug/Pose Estimator/Offset X (m)", offsetX);
+            SmartDashboard.putNumber("Debug/Pose Estimator/Offset Y (m)", offsetY);
+            SmartDashboard.putBoolean("Debug/Pose Estimator/Has Vision Fix", hasVisionFix);
+            SmartDashboard.putNumber("Debug/Pose Estimator/Candidate Frames", candidateFrames);
+            SmartDashboard.putNumber("Debug/Pose Estimator/Update Time (ms)", updateTime * 1000.0);
+            SmartDashboard.putNumber(
+                    "Debug/Pose Estimator/Max Update Time (ms)", maxUpdateTime * 1000.0);
+
+            if (visionPose != null) {
+                drivetrain.getField().getObject("Vision Pose").setPose(visionPose);
+            }
+        }
+    }
+}
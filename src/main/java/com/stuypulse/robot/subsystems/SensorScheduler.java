@@ -0,0 +1,117 @@
+/************************ PROJECT DORCAS ************************/
+/* Copyright (c) 2022 StuyPulse Robotics. All rights reserved.  */
+/* This work is licensed under the terms of the MIT license.    */
+/****************************************************************/
+
+package com.stuypulse.robot.subsystems;
+
+import com.stuypulse.stuylib.util.StopWatch;
+
+import com.stuypulse.robot.constants.Settings;
+
+import edu.wpi.first.wpilibj.Notifier;
+import edu.wpi.first.wpilibj.smartdashboard.SmartDashboard;
+import edu.wpi.first.wpilibj2.command.SubsystemBase;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/*-
+ * Samples every sensor that needs to be checked faster than the robot loop, on one thread.
+ *
+ * Each tick has two steps:
+ *      - Samplers read the hardware (beam breaks, the latest color sample) and save it.
+ *      - Filters (debounces and such) update using only what was saved.
+ *
+ * Every sampler runs before any filter, so all of the filters in a tick see the same
+ * snapshot of the robot instead of reading the sensors again at slightly different times.
+ * Subsystems then read the saved values and filter outputs instead of the hardware.
+ *
+ * This replaces a polling thread for every filtered stream, which each read the sensors
+ * on their own and raced with the robot loop reading them too.
+ */
+public class SensorScheduler extends SubsystemBase {
+
+    private final List<Runnable> samplers;
+    private final List<Runnable> filters;
+
+    private final Notifier thread;
+
+    // How long each tick takes (written by the sensor thread)
+    private final StopWatch tickTimer;
+    private volatile long ticks;
+    private volatile double tickTime;
+    private volatile double maxTickTime;
+
+    public SensorScheduler() {
+        samplers = new CopyOnWriteArrayList<>();
+        filters = new CopyOnWriteArrayList<>();
+
+        tickTimer = new StopWatch();
+        ticks = 0;
+        tickTime = 0.0;
+        maxTickTime = 0.0;
+
+        thread = new Notifier(this::tick);
+        thread.setName("Sensors");
+        thread.startPeriodic(Settings.Sensors.UPDATE_PERIOD);
+    }
+
+    /*** Registration ***/
+
+    /** runs every tick before any filter, should only read hardware and save what it read */
+    public void addSampler(Runnable sampler) {
+        samplers.add(sampler);
+    }
+
+    /** runs every tick after all of the samplers, should only use what they saved */
+    public void addFilter(Runnable filter) {
+        filters.add(filter);
+    }
+
+    /*** Ticks ***/
+
+    private void tick() {
+        tickTimer.reset();
+
+        for (Runnable sampler : samplers) {
+            sampler.run();
+        }
+
+        for (Runnable filter : filters) {
+            filter.run();
+        }
+
+        double time = tickTimer.reset();
+        tickTime = time;
+        maxTickTime = Math.max(maxTickTime, time);
+        ticks++;
+    }
+
+    public long getTicks() {
+        return ticks;
+    }
+
+    // How long the last tick took (in seconds)
+    public double getTickTime() {
+        return tickTime;
+    }
+
+    public double getMaxTickTime() {
+        return maxTickTime;
+    }
+
+    /*** Debug Information ***/
+
+    @Override
+    public void periodic() {
+        if (Settings.DEBUG_MODE.get()) {
+            SmartDashboard.putNumber("Debug/Sensors/Ticks", getTicks());
+            SmartDashboard.putNumber("Debug/Sensors/Tick Time (ms)", getTickTime() * 1000.0);
+            SmartDashboard.putNumber(
+                    "Debug/Sensors/Max Tick Time (ms)", getMaxTickTime() * 1000.0);
+            SmartDashboard.putNumber("Debug/Sensors/Tasks", samplers.size() + filters.size());
+            SmartDashboard.putNumber("Debug/Sensors/Threads", Thread.activeCount());
+        }
+    }
+}
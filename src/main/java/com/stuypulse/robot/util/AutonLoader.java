@@ -0,0 +1,156 @@
+/************************ PROJECT DORCAS ************************/
+/* Copyright (c) 2022 StuyPulse Robotics. All rights reserved.  */
+/* This work is licensed under the terms of the MIT license.    */
+/****************************************************************/
+
+package com.stuypulse.robot.util;
+
+import com.stuypulse.robot.constants.Settings;
+
+import edu.wpi.first.wpilibj2.command.Command;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Gets the selected auton ready while the robot is disabled.
+ *
+ * <p>Autons load all of their trajectories when they are constructed, so building every one of
+ * them when the robot boots is slow even though only one will ever run. Instead the auton chooser
+ * holds factories, and this class gets whichever one is selected ready, starting again if the
+ * selection changes.
+ *
+ * <p>Loading the trajectories is the slow part, so that happens on a background thread by warming
+ * the TrajectoryLoader cache. The command itself is always constructed on the main thread, because
+ * the command scheduler keeps track of grouped commands in a map that is not thread safe, and it
+ * is still scheduling default commands while the robot is disabled.
+ */
+public class AutonLoader {
+
+    /** An auton in the chooser */
+    public static class Auton {
+        // Folder in the deploy directory that holds the auton's paths (null if it has none)
+        private final String directory;
+        private final Supplier<Command> factory;
+
+        public Auton(String directory, Supplier<Command> factory) {
+            this.directory = directory;
+            this.factory = factory;
+        }
+
+        public Auton(Supplier<Command> factory) {
+            this(null, factory);
+        }
+    }
+
+    private final ExecutorService loader;
+
+    private Auton selected;
+    private Future<?> trajectories;
+    private Command auton;
+
+    public AutonLoader() {
+        this.loader =
+                Executors.newSingleThreadExecutor(
+                        runnable -> {
+                            Thread thread = new Thread(runnable, "Auton Loader");
+                            thread.setDaemon(true);
+                            return thread;
+                        });
+
+        this.selected = null;
+        this.trajectories = null;
+        this.auton = null;
+    }
+
+    /*** Background Thread ***/
+
+    // loads every path the auton could use into the TrajectoryLoader cache
+    private static void loadTrajectories(String directory) {
+        if (directory == null) {
+            return;
+        }
+
+        String output = directory + "/output/";
+
+        List<Path> files;
+        try (Stream<Path> list = Files.list(Settings.DEPLOY_DIRECTORY.resolve(output))) {
+            files = list.collect(Collectors.toList());
+        } catch (IOException e) {
+            Settings.reportWarning("Unable To List Paths In \"" + output + "\"!");
+            return;
+        }
+
+        for (Path file : files) {
+            String name = file.getFileName().toString();
+
+            if (name.endsWith(".wpilib.json")) {
+                TrajectoryLoader.getTrajectory(output + name);
+            }
+        }
+    }
+
+    /*** Main Thread ***/
+
+    /** starts loading the auton's trajectories if it is not the one already selected */
+    public void select(Auton selection) {
+        if (selection == selected) {
+            return;
+        }
+
+        if (trajectories != null) {
+            trajectories.cancel(false);
+        }
+
+        selected = selection;
+        auton = null;
+        trajectories =
+                selection == null
+                        ? null
+                        : loader.submit(() -> loadTrajectories(selection.directory));
+    }
+
+    /** builds the selected auton once its trajectories are loaded, call this while disabled */
+    public void update(Auton selection) {
+        select(selection);
+
+        if (auton == null && selected != null && trajectories.isDone()) {
+            auton = selected.factory.get();
+        }
+    }
+
+    /** if the selected auton has been built */
+    public boolean isReady() {
+        return auton != null;
+    }
+
+    /**
+     * Gets the selected auton, building it now if it has not been built yet.
+     *
+     * <p>Each auton that is built is only handed out once, the next selection builds a new one.
+     */
+    public Command get(Auton selection) {
+        select(selection);
+
+        if (selected == null) {
+            return null;
+        }
+
+        // anything that has not loaded yet will just be loaded here instead
+        Command command = auton == null ? selected.factory.get() : auton;
+
+        selected = null;
+        trajectories = null;
+        auton = null;
+
+        return command;
+    }
+}
@@ -0,0 +1,118 @@
+/************************ PROJECT DORCAS ************************/
+/* Copyright (c) 2022 StuyPulse Robotics. All rights reserved.  */
+/* This work is licensed under the terms of the MIT license.    */
+/****************************************************************/
+
+package com.stuypulse.robot.util;
+
+import edu.wpi.first.util.datalog.StringLogEntry;
+import edu.wpi.first.wpilibj.DataLogManager;
+import edu.wpi.first.wpilibj.Timer;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Records when each step of an auton started and ended, and why it ended.
+ *
+ * <p>Every step is written to the DataLog as soon as it ends, and when the auton ends a chart of
+ * all of the steps is printed, so it is easy to see where an auton spends its time.
+ */
+public class AutonTimeline {
+
+    // Width of the chart printed at the end (in characters)
+    private static final int CHART_WIDTH = 60;
+
+    // Length of the autonomous period, the chart always covers at least this much
+    private static final double AUTON_LENGTH = 15.0;
+
+    public enum Reason {
+        FINISHED,
+        INTERRUPTED,
+        TIMED_OUT
+    }
+
+    private static class Step {
+        public final String name;
+        public final double start;
+
+        public double end;
+        public Reason reason;
+
+        public Step(String name, double start) {
+            this.name = name;
+            this.start = start;
+        }
+    }
+
+    private final String name;
+    private final List<Step> steps;
+
+    private StringLogEntry log;
+    private double start;
+
+    public AutonTimeline(String name) {
+        this.name = name;
+        this.steps = new ArrayList<>();
+
+        this.log = null;
+        this.start = 0.0;
+    }
+
+    private double getTime() {
+        return Timer.getFPGATimestamp() - start;
+    }
+
+    public void start() {
+        if (log == null) {
+            log = new StringLogEntry(DataLogManager.getLog(), "Auton/" + name + "/Timeline");
+        }
+
+        steps.clear();
+        start = Timer.getFPGATimestamp();
+
+        log.append("START");
+    }
+
+    public void startStep(String step) {
+        steps.add(new Step(step, getTime()));
+    }
+
+    public void endStep(Reason reason) {
+        Step step = steps.get(steps.size() - 1);
+        step.end = getTime();
+        step.reason = reason;
+
+        log.append(
+                String.format(
+                        "%d %s %.3f %.3f %s",
+                        steps.size() - 1, step.name, step.start, step.end, step.reason));
+    }
+
+    public void finish(boolean interrupted) {
+        double end = getTime();
+        log.append(String.format("%s %.3f", interrupted ? "INTERRUPTED" : "FINISHED", end));
+
+        printChart(end);
+    }
+
+    private void printChart(double end) {
+        double scale = CHART_WIDTH / Math.max(end, AUTON_LENGTH);
+
+        System.out.printf("%n%s timeline (%.2f s):%n", name, end);
+
+        for (Step step : steps) {
+            int from = (int) (step.start * scale);
+            int to = Math.max(from + 1, (int) Math.ceil(step.end * scale));
+
+            StringBuilder bar = new StringBuilder();
+            for (int i = 0; i < CHART_WIDTH; ++i) {
+                bar.append(i >= from && i < to ? '#' : ' ');
+            }
+
+            System.out.printf(
+                    "  %6.2f %6.2f  %-28s |%s| %s%n",
+                    step.start, step.end, step.name, bar, step.reason);
+        }
+    }
+}
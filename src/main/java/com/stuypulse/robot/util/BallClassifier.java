@@ -0,0 +1,117 @@
+/************************ PROJECT DORCAS ************************/
+/* Copyright (c) 2022 StuyPulse Robotics. All rights reserved.  */
+/* This work is licensed under the terms of the MIT license.    */
+/****************************************************************/
+
+package com.stuypulse.robot.util;
+
+import edu.wpi.first.wpilibj.util.Color;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/*-
+ * Classifies what the color sensor sees using a lookup table trained from our logs.
+ *
+ * Each channel of the color is cut into 2^BITS steps, which splits every possible color
+ * into a grid of cells. The table stores what the samples that fell into each cell were
+ * labeled as, so classifying a color is just finding its cell. Cells that did not have
+ * enough samples, or where the labels disagreed, are UNCERTAIN.
+ *
+ * The table is built by BallClassifierTrainer (./gradlew trainBallClassifier) and saved to
+ * the deploy directory in this format:
+ *      int magic, int version, int bits,
+ *      then one byte for every cell, red changing slowest and blue fastest
+ */
+public class BallClassifier {
+
+    public static final int MAGIC = 0x424C5554; // "BLUT"
+    public static final int VERSION = 1;
+
+    public static final int BITS = 5;
+    public static final int STEPS = 1 << BITS;
+    public static final int CELLS = STEPS * STEPS * STEPS;
+
+    public enum Result {
+        NONE,
+        RED,
+        BLUE,
+        UNCERTAIN
+    }
+
+    private static final Result[] RESULTS = Result.values();
+
+    private final byte[] table;
+
+    public BallClassifier(byte[] table) {
+        if (table.length != CELLS) {
+            throw new IllegalArgumentException(
+                    "Ball classifier table has " + table.length + " cells, not " + CELLS + "!");
+        }
+
+        for (byte cell : table) {
+            if (cell < 0 || cell >= RESULTS.length) {
+                throw new IllegalArgumentException("Ball classifier table has a bad cell!");
+            }
+        }
+
+        this.table = table.clone();
+    }
+
+    private static int quantize(double channel) {
+        int step = (int) (channel * STEPS);
+        return Math.max(0, Math.min(step, STEPS - 1));
+    }
+
+    /** returns which cell of the table a color falls in */
+    public static int getCell(double red, double green, double blue) {
+        return (quantize(red) * STEPS + quantize(green)) * STEPS + quantize(blue);
+    }
+
+    public Result classify(double red, double green, double blue) {
+        return RESULTS[table[getCell(red, green, blue)]];
+    }
+
+    public Result classify(Color color) {
+        return classify(color.red, color.green, color.blue);
+    }
+
+    /*** Files ***/
+
+    public static BallClassifier read(Path path) throws IOException {
+        try (InputStream file = Files.newInputStream(path);
+                DataInputStream input = new DataInputStream(file)) {
+            if (input.readInt() != MAGIC) {
+                throw new IOException("\"" + path + "\" is not a ball classifier table!");
+            }
+
+            if (input.readInt() != VERSION || input.readInt() != BITS) {
+                throw new IOException("\"" + path + "\" was made for a different classifier!");
+            }
+
+            byte[] table = new byte[CELLS];
+            input.readFully(table);
+
+            try {
+                return new BallClassifier(table);
+            } catch (IllegalArgumentException e) {
+                throw new IOException(e.getMessage(), e);
+            }
+        }
+    }
+
+    public void write(Path path) throws IOException {
+        try (OutputStream file = Files.newOutputStream(path);
+                DataOutputStream output = new DataOutputStream(file)) {
+            output.writeInt(MAGIC);
+            output.writeInt(VERSION);
+            output.writeInt(BITS);
+            output.write(table);
+        }
+    }
+}
@@ -0,0 +1,127 @@
+/************************ PROJECT DORCAS ************************/
+/* Copyright (c) 2022 StuyPulse Robotics. All rights reserved.  */
+/* This work is licensed under the terms of the MIT license.    */
+/****************************************************************/
+
+package com.stuypulse.robot.util;
+
+import edu.wpi.first.wpilibj.AsynchronousInterrupt;
+import edu.wpi.first.wpilibj.DigitalInput;
+
+/*-
+ * An IR beam break that records exactly when a ball enters and leaves it.
+ *
+ * The FPGA timestamps every edge of the input in hardware, and an interrupt thread
+ * saves each edge into a ring buffer as soon as it happens. The robot can then read
+ * the edges back in order whenever it wants, knowing when each one happened to the
+ * microsecond instead of to the nearest time the input was polled.
+ *
+ * The ring buffer has one writer (the interrupt thread) and one reader, so it does
+ * not need any locks: the writer only moves the tail, the reader only moves the head,
+ * and both are volatile so each side sees what the other has finished with. If the
+ * reader falls behind and the buffer fills up, new edges are dropped and counted.
+ *
+ * The sensors read false when something is blocking them, so a falling edge is a
+ * ball entering and a rising edge is a ball leaving.
+ */
+public class BeamBreak {
+
+    // Must be a power of two
+    private static final int CAPACITY = 64;
+
+    /** An edge of the beam break */
+    public static class Edge {
+        // If a ball entered the beam (false if it left)
+        public final boolean entered;
+
+        // FPGA time of the edge (in seconds)
+        public final double timestamp;
+
+        public Edge(boolean entered, double timestamp) {
+            this.entered = entered;
+            this.timestamp = timestamp;
+        }
+    }
+
+    private final DigitalInput input;
+    private final AsynchronousInterrupt interrupt;
+
+    private final Edge[] edges;
+    private volatile long head;
+    private volatile long tail;
+    private volatile long dropped;
+
+    public BeamBreak(int channel) {
+        input = new DigitalInput(channel);
+
+        edges = new Edge[CAPACITY];
+        head = 0;
+        tail = 0;
+        dropped = 0;
+
+        interrupt = new AsynchronousInterrupt(input, this::onInterrupt);
+        interrupt.setInterruptEdges(true, true);
+        interrupt.enable();
+    }
+
+    /*** Interrupt Thread ***/
+
+    private void push(Edge edge) {
+        if (tail - head >= CAPACITY) {
+            dropped++;
+            return;
+        }
+
+        edges[(int) (tail & (CAPACITY - 1))] = edge;
+        tail++;
+    }
+
+    private void onInterrupt(boolean rising, boolean falling) {
+        Edge rise = rising ? new Edge(false, interrupt.getRisingTimestamp()) : null;
+        Edge fall = falling ? new Edge(true, interrupt.getFallingTimestamp()) : null;
+
+        // if both happened since the last interrupt, keep them in the order they happened
+        if (rise != null && fall != null && rise.timestamp > fall.timestamp) {
+            push(fall);
+            push(rise);
+        } else {
+            if (rise != null) push(rise);
+            if (fall != null) push(fall);
+        }
+    }
+
+    /*** Reader ***/
+
+    /** returns the oldest edge that has not been read yet without removing it */
+    public Edge peek() {
+        if (head == tail) {
+            return null;
+        }
+
+        return edges[(int) (head & (CAPACITY - 1))];
+    }
+
+    /** returns the oldest edge that has not been read yet, or null if there are none */
+    public Edge poll() {
+        if (head == tail) {
+            return null;
+        }
+
+        int index = (int) (head & (CAPACITY - 1));
+        Edge edge = edges[index];
+        edges[index] = null;
+        head++;
+
+        return edge;
+    }
+
+    /** returns how many edges were lost because they were not read fast enough */
+    public long getDropped() {
+        return dropped;
+    }
+
+    /** returns if a ball is blocking the beam right now */
+    public boolean isBlocked() {
+        return !input.get();
+    }
+}
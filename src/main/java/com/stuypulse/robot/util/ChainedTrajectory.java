@@ -0,0 +1,156 @@
+/************************ PROJECT DORCAS ************************/
+/* Copyright (c) 2022 StuyPulse Robotics. All rights reserved.  */
+/* This work is licensed under the terms of the MIT license.    */
+/****************************************************************/
+
+package com.stuypulse.robot.util;
+
+import com.stuypulse.robot.constants.Settings.Drivetrain.Motion;
+
+import edu.wpi.first.math.MathUtil;
+import edu.wpi.first.math.geometry.Pose2d;
+import edu.wpi.first.math.spline.PoseWithCurvature;
+import edu.wpi.first.math.trajectory.Trajectory;
+import edu.wpi.first.math.trajectory.TrajectoryParameterizer;
+import edu.wpi.first.math.trajectory.constraint.DifferentialDriveKinematicsConstraint;
+import edu.wpi.first.math.trajectory.constraint.DifferentialDriveVoltageConstraint;
+import edu.wpi.first.math.trajectory.constraint.TrajectoryConstraint;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Joins path segments into one trajectory that does not stop between them.
+ *
+ * <p>Following each segment with its own DrivetrainRamsete brings the robot to a stop at the end
+ * of every one. Here the points of every segment are put together into a single path and the
+ * whole thing is timed again from scratch, so the robot only speeds up once, slows down once, and
+ * passes through the ends of the segments at whatever speed the path allows.
+ *
+ * <p>The new profile is limited by the max velocity / acceleration of the drivetrain, the speed of
+ * the outside wheel, and the voltage the feed forward needs, so it is never asking for more than
+ * the motors can do.
+ *
+ * <p>The robot has to stop to change direction, so every segment must drive the same way, and each
+ * one has to start where the last one ended.
+ */
+public class ChainedTrajectory {
+
+    // How far apart the end of one segment and the start of the next can be
+    private static final double MAX_POSITION_GAP = 0.1;
+    private static final double MAX_HEADING_GAP = Math.toRadians(10.0);
+
+    private static final List<TrajectoryConstraint> CONSTRAINTS =
+            List.of(
+                    new DifferentialDriveKinematicsConstraint(
+                            Motion.KINEMATICS, Motion.MAX_VELOCITY),
+                    new DifferentialDriveVoltageConstraint(
+                            Motion.MOTOR_FEED_FORWARD, Motion.KINEMATICS, Motion.MAX_VOLTAGE));
+
+    private final Trajectory trajectory;
+    private final boolean reversed;
+
+    // When the robot reaches the start of each segment (in seconds)
+    private final double[] segmentTimes;
+
+    public ChainedTrajectory(List<Trajectory> segments) {
+        if (segments.isEmpty()) {
+            throw new IllegalArgumentException("Can not chain zero trajectories!");
+        }
+
+        this.reversed = isReversed(segments.get(0));
+
+        List<PoseWithCurvature> points = new ArrayList<>();
+        int[] segmentStarts = new int[segments.size()];
+
+        for (int i = 0; i < segments.size(); ++i) {
+            List<Trajectory.State> states = segments.get(i).getStates();
+
+            if (isReversed(segments.get(i)) != reversed) {
+                throw new IllegalArgumentException(
+                        "Segment " + i + " drives the other way, the robot has to stop first!");
+            }
+
+            if (i > 0) {
+                Pose2d end = points.get(points.size() - 1).poseMeters;
+                Pose2d start = states.get(0).poseMeters;
+
+                double gap = end.getTranslation().getDistance(start.getTranslation());
+                double angle =
+                        MathUtil.angleModulus(
+                                end.getRotation().getRadians() - start.getRotation().getRadians());
+
+                if (gap > MAX_POSITION_GAP || Math.abs(angle) > MAX_HEADING_GAP) {
+                    throw new IllegalArgumentException(
+                            "Segment " + i + " does not start where segment " + (i - 1) + " ends!");
+                }
+
+                // the end of the last segment and the start of this one are the same point
+                points.remove(points.size() - 1);
+            }
+
+            segmentStarts[i] = points.size();
+
+            for (Trajectory.State state : states) {
+                points.add(new PoseWithCurvature(state.poseMeters, state.curvatureRadPerMeter));
+            }
+        }
+
+        this.trajectory =
+                TrajectoryParameterizer.timeParameterizeTrajectory(
+                        points,
+                        CONSTRAINTS,
+                        0.0,
+                        0.0,
+                        Motion.MAX_VELOCITY,
+                        Motion.MAX_ACCELERATION,
+                        reversed);
+
+        List<Trajectory.State> states = trajectory.getStates();
+        this.segmentTimes = new double[segments.size()];
+        for (int i = 0; i < segmentTimes.length; ++i) {
+            segmentTimes[i] = states.get(segmentStarts[i]).timeSeconds;
+        }
+    }
+
+    public ChainedTrajectory(Trajectory... segments) {
+        this(Arrays.asList(segments));
+    }
+
+    public ChainedTrajectory(String... paths) {
+        this(Arrays.stream(paths).map(TrajectoryLoader::getTrajectory).toArray(Trajectory[]::new));
+    }
+
+    // Path weaver marks paths that drive backwards with negative velocities
+    public static boolean isReversed(Trajectory trajectory) {
+        for (Trajectory.State state : trajectory.getStates()) {
+            if (state.velocityMetersPerSecond < 0.0) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    public Trajectory getTrajectory() {
+        return trajectory;
+    }
+
+    public boolean isReversed() {
+        return reversed;
+    }
+
+    public double getTotalTime() {
+        return trajectory.getTotalTimeSeconds();
+    }
+
+    public int getSegmentCount() {
+        return segmentTimes.length;
+    }
+
+    // When the robot gets to the start of a segment (in seconds from the start)
+    public double getSegmentTime(int segment) {
+        return segmentTimes[segment];
+    }
+}
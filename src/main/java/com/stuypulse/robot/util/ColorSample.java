@@ -0,0 +1,53 @@
+/************************ PROJECT DORCAS ************************/
+/* Copyright (c) 2022 StuyPulse Robotics. All rights reserved.  */
+/* This work is licensed under the terms of the MIT license.    */
+/****************************************************************/
+
+package com.stuypulse.robot.util;
+
+import edu.wpi.first.wpilibj.util.Color;
+
+/**
+ * A single reading of the color sensor.
+ *
+ * <p>Samples are immutable, so the thread reading the sensor can hand them to the robot thread
+ * without any locking, and the color is always the one read when the sensor was connected.
+ */
+public final class ColorSample {
+
+    public static final ColorSample EMPTY = new ColorSample(0, false, Color.kBlack, 0.0);
+
+    private final long id;
+
+    private final boolean connected;
+    private final Color color;
+
+    // FPGA time the sample was read (in seconds)
+    private final double timestamp;
+
+    public ColorSample(long id, boolean connected, Color color, double timestamp) {
+        this.id = id;
+        this.connected = connected;
+        this.color = color;
+        this.timestamp = timestamp;
+    }
+
+    /** increases by one for every sample read */
+    public long getId() {
+        return id;
+    }
+
+    /** if the sensor is enabled and answered over I2C */
+    public boolean isConnected() {
+        return connected;
+    }
+
+    /** color seen by the sensor, black if it is not connected */
+    public Color getColor() {
+        return color;
+    }
+
+    public double getTimestamp() {
+        return timestamp;
+    }
+}
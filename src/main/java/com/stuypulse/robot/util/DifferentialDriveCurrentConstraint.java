@@ -0,0 +1,84 @@
+/************************ PROJECT DORCAS ************************/
+/* Copyright (c) 2022 StuyPulse Robotics. All rights reserved.  */
+/* This work is licensed under the terms of the MIT license.    */
+/****************************************************************/
+
+package com.stuypulse.robot.util;
+
+import edu.wpi.first.math.controller.SimpleMotorFeedforward;
+import edu.wpi.first.math.geometry.Pose2d;
+import edu.wpi.first.math.kinematics.DifferentialDriveKinematics;
+import edu.wpi.first.math.system.plant.DCMotor;
+import edu.wpi.first.math.trajectory.constraint.TrajectoryConstraint;
+
+/**
+ * Keeps the current through each drivetrain motor under a limit.
+ *
+ * <p>The feedforward voltage for moving at a speed ({@code kV * v}) is what cancels out the back
+ * EMF of the motor, so only the rest of it ({@code kS + kA * a}) pushes current through the
+ * windings. That means the current limit is really a limit on how hard each side can accelerate.
+ */
+public class DifferentialDriveCurrentConstraint implements TrajectoryConstraint {
+
+    // Resistance of the windings of one NEO (in ohms)
+    private static final double RESISTANCE = DCMotor.getNEO(1).rOhms;
+
+    private final SimpleMotorFeedforward feedforward;
+    private final DifferentialDriveKinematics kinematics;
+    private final double maxCurrent;
+
+    public DifferentialDriveCurrentConstraint(
+            SimpleMotorFeedforward feedforward,
+            DifferentialDriveKinematics kinematics,
+            double maxCurrent) {
+        this.feedforward = feedforward;
+        this.kinematics = kinematics;
+        this.maxCurrent = maxCurrent;
+    }
+
+    // Current through one motor on a side moving at a speed and acceleration (in amps)
+    public static double getCurrent(
+            SimpleMotorFeedforward feedforward, double velocity, double acceleration) {
+        return (feedforward.ks * Math.signum(velocity) + feedforward.ka * acceleration)
+                / RESISTANCE;
+    }
+
+    // Fastest the robot can speed up while driving straight (in m/s^2)
+    public double getMaxAcceleration() {
+        return (maxCurrent * RESISTANCE - feedforward.ks) / feedforward.ka;
+    }
+
+    @Override
+    public double getMaxVelocityMetersPerSecond(
+            Pose2d poseMeters, double curvatureRadPerMeter, double velocityMetersPerSecond) {
+        return Double.POSITIVE_INFINITY;
+    }
+
+    @Override
+    public MinMax getMinMaxAccelerationMetersPerSecondSq(
+            Pose2d poseMeters, double curvatureRadPerMeter, double velocityMetersPerSecond) {
+        double voltage = maxCurrent * RESISTANCE;
+
+        double min = Double.NEGATIVE_INFINITY;
+        double max = Double.POSITIVE_INFINITY;
+
+        // each side moves (1 -/+ curvature * track width / 2) times as fast as the robot
+        for (int side = -1; side <= 1; side += 2) {
+            double scale = 1.0 + side * curvatureRadPerMeter * kinematics.trackWidthMeters / 2.0;
+
+            // turning in place around this side, it never has to accelerate
+            if (Math.abs(scale) < 1e-9) {
+                continue;
+            }
+
+            double friction = feedforward.ks * Math.signum(velocityMetersPerSecond * scale);
+            double low = (-voltage - friction) / (feedforward.ka * scale);
+            double high = (voltage - friction) / (feedforward.ka * scale);
+
+            min = Math.max(min, Math.min(low, high));
+            max = Math.min(max, Math.max(low, high));
+        }
+
+        return new MinMax(min, max);
+    }
+}
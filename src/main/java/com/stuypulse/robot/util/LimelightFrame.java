@@ -0,0 +1,72 @@
+/************************ PROJECT DORCAS ************************/
+/* Copyright (c) 2022 StuyPulse Robotics. All rights reserved.  */
+/* This work is licensed under the terms of the MIT license.    */
+/****************************************************************/
+
+package com.stuypulse.robot.util;
+
+/**
+ * Everything the Limelight told us about a single frame.
+ *
+ * <p>Frames are immutable, so a reference to one can be handed from the NetworkTables listener
+ * thread to the robot thread without any locking, and every value read from it is guaranteed to
+ * come from the same frame.
+ */
+public final class LimelightFrame {
+
+    public static final LimelightFrame EMPTY = new LimelightFrame(0, false, 0.0, 0.0, 0.0, 0.0);
+
+    private final long id;
+
+    private final boolean hasTarget;
+    private final double xAngle;
+    private final double yAngle;
+
+    // Pipeline latency reported by the limelight (in seconds)
+    private final double latency;
+
+    // FPGA time the frame reached the robot (in seconds)
+    private final double receiveTimestamp;
+
+    public LimelightFrame(
+            long id,
+            boolean hasTarget,
+            double xAngle,
+            double yAngle,
+            double latency,
+            double receiveTimestamp) {
+        this.id = id;
+        this.hasTarget = hasTarget;
+        this.xAngle = xAngle;
+        this.yAngle = yAngle;
+        this.latency = latency;
+        this.receiveTimestamp = receiveTimestamp;
+    }
+
+    /** increases by one for every new frame received from the limelight */
+    public long getId() {
+        return id;
+    }
+
+    public boolean hasTarget() {
+        return hasTarget;
+    }
+
+    /** raw tx reported by the limelight (in degrees) */
+    public double getXAngle() {
+        return xAngle;
+    }
+
+    /** raw ty reported by the limelight (in degrees) */
+    public double getYAngle() {
+        return yAngle;
+    }
+
+    public double getLatency() {
+        return latency;
+    }
+
+    public double getReceiveTimestamp() {
+        return receiveTimestamp;
+    }
+}
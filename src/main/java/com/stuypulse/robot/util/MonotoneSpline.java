@@ -0,0 +1,114 @@
+/************************ PROJECT DORCAS ************************/
+/* Copyright (c) 2022 StuyPulse Robotics. All rights reserved.  */
+/* This work is licensed under the terms of the MIT license.    */
+/****************************************************************/
+
+package com.stuypulse.robot.util;
+
+/**
+ * A smooth curve through a set of points that never overshoots them.
+ *
+ * <p>This is a cubic hermite spline with its slopes picked using the Fritsch-Carlson method. If
+ * the points only go up (like RPM does with distance), the curve between them only goes up too,
+ * which a normal cubic spline does not promise. Past either end the curve stays flat at the value
+ * of the last point.
+ */
+public class MonotoneSpline {
+
+    private final double[] xs;
+    private final double[] ys;
+    private final double[] slopes;
+
+    public MonotoneSpline(double[] xs, double[] ys) {
+        if (xs.length == 0 || xs.length != ys.length) {
+            throw new IllegalArgumentException("A spline needs the same number of x and y values!");
+        }
+
+        for (int i = 1; i < xs.length; ++i) {
+            if (!(xs[i] > xs[i - 1])) {
+                throw new IllegalArgumentException("Spline x values must be strictly increasing!");
+            }
+        }
+
+        this.xs = xs.clone();
+        this.ys = ys.clone();
+        this.slopes = new double[xs.length];
+
+        int n = xs.length;
+        if (n == 1) {
+            return;
+        }
+
+        // slope of the straight line between each pair of points
+        double[] secants = new double[n - 1];
+        for (int i = 0; i < n - 1; ++i) {
+            secants[i] = (ys[i + 1] - ys[i]) / (xs[i + 1] - xs[i]);
+        }
+
+        slopes[0] = secants[0];
+        slopes[n - 1] = secants[n - 2];
+        for (int i = 1; i < n - 1; ++i) {
+            // flat at a peak or valley, otherwise the average of the two sides
+            if (secants[i - 1] * secants[i] <= 0.0) {
+                slopes[i] = 0.0;
+            } else {
+                slopes[i] = (secants[i - 1] + secants[i]) / 2.0;
+            }
+        }
+
+        // make the slopes shallow enough that no segment overshoots
+        for (int i = 0; i < n - 1; ++i) {
+            if (secants[i] == 0.0) {
+                slopes[i] = 0.0;
+                slopes[i + 1] = 0.0;
+                continue;
+            }
+
+            double a = slopes[i] / secants[i];
+            double b = slopes[i + 1] / secants[i];
+            double length = a * a + b * b;
+
+            if (length > 9.0) {
+                double scale = 3.0 / Math.sqrt(length);
+                slopes[i] = scale * a * secants[i];
+                slopes[i + 1] = scale * b * secants[i];
+            }
+        }
+    }
+
+    public double getMinX() {
+        return xs[0];
+    }
+
+    public double getMaxX() {
+        return xs[xs.length - 1];
+    }
+
+    public double get(double x) {
+        int n = xs.length;
+
+        if (x <= xs[0]) {
+            return ys[0];
+        }
+
+        if (x >= xs[n - 1]) {
+            return ys[n - 1];
+        }
+
+        // there are only ever a handful of points, so a linear search is fine
+        int i = 0;
+        while (x > xs[i + 1]) {
+            i++;
+        }
+
+        double h = xs[i + 1] - xs[i];
+        double t = (x - xs[i]) / h;
+        double t2 = t * t;
+        double t3 = t2 * t;
+
+        return (2 * t3 - 3 * t2 + 1) * ys[i]
+                + (t3 - 2 * t2 + t) * h * slopes[i]
+                + (-2 * t3 + 3 * t2) * ys[i + 1]
+                + (t3 - t2) * h * slopes[i + 1];
+    }
+}
@@ -0,0 +1,159 @@
+/************************ PROJECT DORCAS ************************/
+/* Copyright (c) 2022 StuyPulse Robotics. All rights reserved.  */
+/* This work is licensed under the terms of the MIT license.    */
+/****************************************************************/
+
+package com.stuypulse.robot.util;
+
+import edu.wpi.first.math.MathUtil;
+import edu.wpi.first.math.geometry.Pose2d;
+import edu.wpi.first.math.geometry.Rotation2d;
+
+/**
+ * A fixed size ring buffer of timestamped robot poses that can be read from any thread without
+ * locking.
+ *
+ * <p>All of the samples are stored in preallocated primitive arrays, so recording a pose never
+ * allocates. There must only be a single writer (the odometry thread), but there can be any number
+ * of readers. A sample is published by incrementing a volatile counter after it has been written,
+ * and readers stay away from the oldest part of the buffer so that the writer can never overwrite
+ * a sample while it is being read.
+ */
+public class PoseHistory {
+
+    // Fraction of the buffer readers will not touch because the writer may be overwriting it
+    private static final int GUARD_DIVISOR = 4;
+
+    private final int capacity;
+    private final int guard;
+
+    private final double[] timestamps;
+    private final double[] xs;
+    private final double[] ys;
+    private final double[] headings;
+
+    // Total number of samples ever written, and the first one that is still valid
+    private volatile long count;
+    private volatile long first;
+
+    public PoseHistory(int capacity) {
+        if (capacity < 2 * GUARD_DIVISOR) {
+            throw new IllegalArgumentException("PoseHistory capacity is too small!");
+        }
+
+        this.capacity = capacity;
+        this.guard = capacity / GUARD_DIVISOR;
+
+        this.timestamps = new double[capacity];
+        this.xs = new double[capacity];
+        this.ys = new double[capacity];
+        this.headings = new double[capacity];
+
+        this.count = 0;
+        this.first = 0;
+    }
+
+    /*** WRITING (single thread only) ***/
+
+    public void addSample(double timestamp, double x, double y, double heading) {
+        long next = count;
+        int index = (int) (next % capacity);
+
+        timestamps[index] = timestamp;
+        xs[index] = x;
+        ys[index] = y;
+        headings[index] = MathUtil.angleModulus(heading);
+
+        // publishing the sample after it has been written
+        count = next + 1;
+    }
+
+    public void addSample(double timestamp, Pose2d pose) {
+        addSample(timestamp, pose.getX(), pose.getY(), pose.getRotation().getRadians());
+    }
+
+    // Forgets every sample, used when the odometry is reset so we never interpolate across it
+    public void clear() {
+        first = count;
+    }
+
+    /*** READING (any thread) ***/
+
+    private long getOldest(long end) {
+        return Math.max(first, end - capacity + guard);
+    }
+
+    public boolean isEmpty() {
+        return count <= first;
+    }
+
+    public double getLatestTimestamp() {
+        long end = count;
+        if (end <= first) {
+            return Double.NaN;
+        }
+
+        return timestamps[(int) ((end - 1) % capacity)];
+    }
+
+    public Pose2d getLatestPose() {
+        long end = count;
+        if (end <= first) {
+            return new Pose2d();
+        }
+
+        int index = (int) ((end - 1) % capacity);
+        return new Pose2d(xs[index], ys[index], new Rotation2d(headings[index]));
+    }
+
+    /**
+     * Finds where the robot was at a specific FPGA timestamp by interpolating between the two
+     * samples that surround it. Timestamps outside of the buffer are clamped to the oldest and
+     * newest samples.
+     */
+    public Pose2d getPoseAt(double timestamp) {
+        long end = count;
+        long oldest = getOldest(end);
+
+        if (end <= oldest) {
+            return new Pose2d();
+        }
+
+        // binary search for the last sample taken at or before the timestamp
+        long lo = oldest;
+        long hi = end - 1;
+
+        if (timestamp <= timestamps[(int) (lo % capacity)]) {
+            return getPose(lo);
+        }
+
+        if (timestamp >= timestamps[(int) (hi % capacity)]) {
+            return getPose(hi);
+        }
+
+        while (hi - lo > 1) {
+            long mid = (lo + hi) >>> 1;
+            if (timestamps[(int) (mid % capacity)] <= timestamp) {
+                lo = mid;
+            } else {
+                hi = mid;
+            }
+        }
+
+        int a = (int) (lo % capacity);
+        int b = (int) (hi % capacity);
+
+        double dt = timestamps[b] - timestamps[a];
+        double t = dt > 0.0 ? (timestamp - timestamps[a]) / dt : 0.0;
+
+        return new Pose2d(
+                xs[a] + (xs[b] - xs[a]) * t,
+                ys[a] + (ys[b] - ys[a]) * t,
+                new Rotation2d(headings[a] + MathUtil.angleModulus(headings[b] - headings[a]) * t));
+    }
+
+    private Pose2d getPose(long sample) {
+        int index = (int) (sample % capacity);
+        return new Pose2d(xs[index], ys[index], new Rotation2d(headings[index]));
+    }
+}
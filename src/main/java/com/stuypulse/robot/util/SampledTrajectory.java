@@ -0,0 +1,120 @@
+/************************ PROJECT DORCAS ************************/
+/* Copyright (c) 2022 StuyPulse Robotics. All rights reserved.  */
+/* This work is licensed under the terms of the MIT license.    */
+/****************************************************************/
+
+package com.stuypulse.robot.util;
+
+import edu.wpi.first.math.MathUtil;
+import edu.wpi.first.math.geometry.Pose2d;
+import edu.wpi.first.math.trajectory.Trajectory;
+
+/**
+ * A trajectory that has been resampled at a fixed time step into primitive arrays.
+ *
+ * <p>{@link Trajectory#sample(double)} binary searches through the states and allocates a new
+ * State every time it is called. Because every sample here is the same time apart, finding the
+ * samples around a time is a single division, and the result is written into a {@link Sample}
+ * owned by the caller, so following the trajectory never allocates.
+ */
+public class SampledTrajectory {
+
+    // Default time between samples (in seconds), a few times faster than the robot loop
+    public static final double DEFAULT_PERIOD = 0.01;
+
+    /** A reusable point along the trajectory */
+    public static class Sample {
+        public double time;
+
+        public double x;
+        public double y;
+        public double heading;
+
+        public double velocity;
+        public double acceleration;
+        public double curvature;
+    }
+
+    private final double period;
+    private final double totalTime;
+    private final int length;
+
+    private final double[] xs;
+    private final double[] ys;
+    private final double[] headings;
+    private final double[] velocities;
+    private final double[] accelerations;
+    private final double[] curvatures;
+
+    private final Pose2d initialPose;
+
+    public SampledTrajectory(Trajectory trajectory, double maxPeriod) {
+        this.totalTime = trajectory.getTotalTimeSeconds();
+        this.length = (int) Math.ceil(totalTime / maxPeriod) + 1;
+
+        // shrink the period slightly so that the last sample lands exactly on the end
+        this.period = length > 1 ? totalTime / (length - 1) : maxPeriod;
+
+        this.xs = new double[length];
+        this.ys = new double[length];
+        this.headings = new double[length];
+        this.velocities = new double[length];
+        this.accelerations = new double[length];
+        this.curvatures = new double[length];
+
+        for (int i = 0; i < length; ++i) {
+            Trajectory.State state = trajectory.sample(i * period);
+
+            xs[i] = state.poseMeters.getX();
+            ys[i] = state.poseMeters.getY();
+            headings[i] = state.poseMeters.getRotation().getRadians();
+            velocities[i] = state.velocityMetersPerSecond;
+            accelerations[i] = state.accelerationMetersPerSecondSq;
+            curvatures[i] = state.curvatureRadPerMeter;
+        }
+
+        this.initialPose = trajectory.getInitialPose();
+    }
+
+    public SampledTrajectory(Trajectory trajectory) {
+        this(trajectory, DEFAULT_PERIOD);
+    }
+
+    public double getTotalTime() {
+        return totalTime;
+    }
+
+    public double getPeriod() {
+        return period;
+    }
+
+    public int getLength() {
+        return length;
+    }
+
+    public Pose2d getInitialPose() {
+        return initialPose;
+    }
+
+    /** finds the point along the trajectory at a time, and stores it in the sample given */
+    public Sample sample(double time, Sample sample) {
+        time = Math.max(0.0, Math.min(time, totalTime));
+
+        double position = time / period;
+        int a = Math.min((int) position, length - 1);
+        int b = Math.min(a + 1, length - 1);
+        double t = position - a;
+
+        sample.time = time;
+
+        sample.x = xs[a] + (xs[b] - xs[a]) * t;
+        sample.y = ys[a] + (ys[b] - ys[a]) * t;
+        sample.heading = headings[a] + MathUtil.angleModulus(headings[b] - headings[a]) * t;
+
+        sample.velocity = velocities[a] + (velocities[b] - velocities[a]) * t;
+        sample.acceleration = accelerations[a] + (accelerations[b] - accelerations[a]) * t;
+        sample.curvature = curvatures[a] + (curvatures[b] - curvatures[a]) * t;
+
+        return sample;
+    }
+}
@@ -0,0 +1,132 @@
+/************************ PROJECT DORCAS ************************/
+/* Copyright (c) 2022 StuyPulse Robotics. All rights reserved.  */
+/* This work is licensed under the terms of the MIT license.    */
+/****************************************************************/
+
+package com.stuypulse.robot.util;
+
+import com.stuypulse.robot.constants.Settings.Shooter.Ball;
+import com.stuypulse.robot.constants.Settings.Shooter.Solver;
+
+/*-
+ * Finds where to aim and how fast to shoot so a shot lands in the hub while the robot is moving.
+ *
+ * A ball keeps the velocity of the robot when it is shot, so while it is in the air it also
+ * drifts by (robot velocity * time of flight). Aiming at a point that far on the other side of
+ * the hub cancels that out. But how long the ball is in the air depends on how far away that
+ * point is, so the point is found by iterating:
+ *
+ *      aim = hub - velocity * timeOfFlight(|aim|)
+ *
+ * starting from the hub itself. This converges quickly because the time of flight changes
+ * much less than the distance does, and it is always run a fixed number of times so it costs
+ * the same every loop.
+ *
+ * Everything is measured from the robot: x is forward and the angle is the same one the
+ * limelight gives. A drivetrain can only move forward, so the velocity is just a number.
+ *
+ * The time of flight comes from the RPM the shot map gives for a distance, turned into the
+ * speed the ball leaves at using the model in Settings.Shooter.Ball.
+ *
+ * The solution also remembers where the ball goes, so it can tell how far a shot would miss
+ * by if the robot is not lined up with it yet.
+ */
+public class ShotSolver {
+
+    /** Where to aim and how fast to shoot, filled in by {@link #solve} */
+    public static class Solution {
+        // Distance to the point being aimed at (in meters)
+        public double distance;
+
+        public double rpm;
+
+        // Angle to add to the angle to the hub to line up the shot (in degrees)
+        public double yaw;
+
+        // Part of the yaw that comes from leading the shot (in degrees)
+        public double lead;
+
+        public double timeOfFlight;
+
+        // Where the hub is from the robot (in meters)
+        private double hubX;
+        private double hubY;
+
+        // How far the ball moves on its own and how far the robot carries it (in meters)
+        private double flightX;
+        private double flightY;
+        private double drift;
+
+        /**
+         * returns how far from the center of the hub the ball would land (in meters)
+         *
+         * @param yawError how far the robot is from lining up with the yaw (in degrees)
+         */
+        public double getMiss(double yawError) {
+            // the ball goes where the robot is pointing, so it is off by the opposite
+            double cos = Math.cos(Math.toRadians(-yawError));
+            double sin = Math.sin(Math.toRadians(-yawError));
+
+            double landX = flightX * cos - flightY * sin + drift;
+            double landY = flightX * sin + flightY * cos;
+
+            return Math.hypot(landX - hubX, landY - hubY);
+        }
+    }
+
+    // Speed the ball moves away from the robot along the ground (in m/s)
+    public static double getBallSpeed(double rpm) {
+        double surfaceSpeed = rpm / 60.0 * Math.PI * Ball.FLYWHEEL_DIAMETER;
+        double launchAngle = Math.toRadians(Ball.LAUNCH_ANGLE);
+        return Ball.SPEED_RATIO.get() * surfaceSpeed * Math.cos(launchAngle);
+    }
+
+    /**
+     * Finds the shot to take from the robot.
+     *
+     * @param table shot map to use
+     * @param distance distance to the hub (in meters)
+     * @param angle angle to the hub (in degrees)
+     * @param velocity forward velocity of the robot (in m/s)
+     * @param solution where to put the result
+     */
+    public static void solve(
+            ShotTable table, double distance, double angle, double velocity, Solution solution) {
+        double ballSpeedPerRPM = getBallSpeed(1.0);
+
+        double hubX = distance * Math.cos(Math.toRadians(angle));
+        double hubY = distance * Math.sin(Math.toRadians(angle));
+
+        // the robot only moves along x, so only x of the point being aimed at changes
+        double aimX = hubX;
+
+        for (int i = 0; i < Solver.ITERATIONS; ++i) {
+            double aimDistance = Math.hypot(aimX, hubY);
+            double time = aimDistance / (ballSpeedPerRPM * table.getRPM(aimDistance));
+            aimX = hubX - velocity * time;
+        }
+
+        double aimDistance = Math.hypot(aimX, hubY);
+        double rpm = table.getRPM(aimDistance);
+        double lead = Math.toDegrees(Math.atan2(hubY, aimX)) - angle;
+
+        // the table can not shoot past its ends, so the ball may fall short of the aim point
+        double range =
+                Math.max(table.getMinDistance(), Math.min(aimDistance, table.getMaxDistance()));
+        double timeOfFlight = range / (ballSpeedPerRPM * rpm);
+        double scale = range / aimDistance;
+
+        solution.distance = aimDistance;
+        solution.rpm = rpm;
+        solution.lead = lead;
+        solution.yaw = lead + table.getYaw(aimDistance);
+        solution.timeOfFlight = timeOfFlight;
+
+        // the ball lands where it was aimed plus how far the robot carries it while it flies
+        solution.hubX = hubX;
+        solution.hubY = hubY;
+        solution.flightX = aimX * scale;
+        solution.flightY = hubY * scale;
+        solution.drift = velocity * timeOfFlight;
+    }
+}
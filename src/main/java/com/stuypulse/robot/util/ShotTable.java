@@ -0,0 +1,189 @@
+/************************ PROJECT DORCAS ************************/
+/* Copyright (c) 2022 StuyPulse Robotics. All rights reserved.  */
+/* This work is licensed under the terms of the MIT license.    */
+/****************************************************************/
+
+package com.stuypulse.robot.util;
+
+import edu.wpi.first.math.util.Units;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * A precomputed table of the RPM and yaw offset to shoot with at every distance.
+ *
+ * <p>A {@link MonotoneSpline} is fit through the calibration points, so the setpoint changes
+ * smoothly with distance instead of jumping between points, and then sampled every {@link
+ * #RESOLUTION} meters. Looking up a distance is then just finding the two samples around it and
+ * blending them, without searching or evaluating the spline.
+ *
+ * <p>Calibration points are read from a csv file in the deploy directory with one point per line:
+ *
+ * <pre>
+ * # distance (in), rpm, yaw (deg)
+ * 167, 3175, 5.1
+ * </pre>
+ */
+public class ShotTable {
+
+    // Distance between samples in the table (in meters)
+    public static final double RESOLUTION = 0.01;
+
+    /** A distance that has been tuned by shooting from it */
+    public static class Point {
+        public final double distance;
+        public final double rpm;
+        public final double yaw;
+
+        public Point(double distance, double rpm, double yaw) {
+            this.distance = distance;
+            this.rpm = rpm;
+            this.yaw = yaw;
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            if (!(other instanceof Point)) {
+                return false;
+            }
+
+            Point point = (Point) other;
+            return distance == point.distance && rpm == point.rpm && yaw == point.yaw;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(distance, rpm, yaw);
+        }
+    }
+
+    // Counts up every time the table is rebuilt, so users can tell which one they have
+    private final int version;
+
+    private final double minDistance;
+    private final double maxDistance;
+    private final int length;
+
+    private final double[] rpms;
+    private final double[] yaws;
+
+    public ShotTable(List<Point> calibration, int version) {
+        this.version = version;
+
+        List<Point> points = new ArrayList<>(calibration);
+        points.sort(Comparator.comparingDouble(point -> point.distance));
+
+        // if two points are at the same distance, the first one given is used
+        List<Point> unique = new ArrayList<>();
+        for (Point point : points) {
+            boolean duplicate = false;
+            for (Point other : unique) {
+                duplicate |= Math.abs(other.distance - point.distance) < 1e-6;
+            }
+
+            if (!duplicate) {
+                unique.add(point);
+            }
+        }
+
+        if (unique.isEmpty()) {
+            throw new IllegalArgumentException("A shot table needs at least one point!");
+        }
+
+        double[] distances = unique.stream().mapToDouble(point -> point.distance).toArray();
+        MonotoneSpline rpm =
+                new MonotoneSpline(distances, unique.stream().mapToDouble(p -> p.rpm).toArray());
+        MonotoneSpline yaw =
+                new MonotoneSpline(distances, unique.stream().mapToDouble(p -> p.yaw).toArray());
+
+        this.minDistance = distances[0];
+        this.maxDistance = distances[distances.length - 1];
+        this.length = (int) Math.ceil((maxDistance - minDistance) / RESOLUTION) + 1;
+
+        this.rpms = new double[length];
+        this.yaws = new double[length];
+
+        for (int i = 0; i < length; ++i) {
+            double distance = Math.min(minDistance + i * RESOLUTION, maxDistance);
+            rpms[i] = rpm.get(distance);
+            yaws[i] = yaw.get(distance);
+        }
+    }
+
+    public ShotTable(List<Point> calibration) {
+        this(calibration, 0);
+    }
+
+    public ShotTable(Point... calibration) {
+        this(Arrays.asList(calibration));
+    }
+
+    /** reads calibration points from a csv file, with distances in inches */
+    public static List<Point> readPoints(Path file) throws IOException {
+        List<Point> points = new ArrayList<>();
+
+        for (String line : Files.readAllLines(file)) {
+            line = line.strip();
+            if (line.isEmpty() || line.startsWith("#")) {
+                continue;
+            }
+
+            String[] values = line.split(",");
+            if (values.length != 3) {
+                throw new IOException("Bad line in \"" + file + "\": " + line);
+            }
+
+            try {
+                points.add(
+                        new Point(
+                                Units.inchesToMeters(Double.parseDouble(values[0].strip())),
+                                Double.parseDouble(values[1].strip()),
+                                Double.parseDouble(values[2].strip())));
+            } catch (NumberFormatException e) {
+                throw new IOException("Bad number in \"" + file + "\": " + line, e);
+            }
+        }
+
+        return points;
+    }
+
+    // finds where a distance is in the table, as a fractional index
+    private double getPosition(double distance) {
+        double position = (distance - minDistance) / RESOLUTION;
+        return Math.max(0.0, Math.min(position, length - 1));
+    }
+
+    private static double lerp(double[] values, double position) {
+        int a = (int) position;
+        int b = Math.min(a + 1, values.length - 1);
+        return values[a] + (values[b] - values[a]) * (position - a);
+    }
+
+    public int getVersion() {
+        return version;
+    }
+
+    public double getMinDistance() {
+        return minDistance;
+    }
+
+    public double getMaxDistance() {
+        return maxDistance;
+    }
+
+    public double getRPM(double distance) {
+        return lerp(rpms, getPosition(distance));
+    }
+
+    // Angle offset to align to at a distance (in degrees)
+    public double getYaw(double distance) {
+        return lerp(yaws, getPosition(distance));
+    }
+}
@@ -0,0 +1,112 @@
+/************************ PROJECT DORCAS ************************/
+/* Copyright (c) 2022 StuyPulse Robotics. All rights reserved.  */
+/* This work is licensed under the terms of the MIT license.    */
+/****************************************************************/
+
+package com.stuypulse.robot.util;
+
+import com.stuypulse.robot.util.ShotTable.Point;
+
+import edu.wpi.first.wpilibj.DriverStation;
+import edu.wpi.first.wpilibj.Notifier;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+/**
+ * Keeps a {@link ShotTable} up to date with its calibration file and the points tuned from
+ * SmartDashboard.
+ *
+ * <p>A background thread checks every {@link #UPDATE_PERIOD} seconds if the tuned points or the
+ * time the file was last changed are different from what the current table was built from. If
+ * they are, a new table is built on that thread and swapped in all at once, so {@link #get()} never
+ * locks, never has to build anything, and always returns a whole table from one version of the
+ * inputs.
+ */
+public class ShotTableReloader {
+
+    // How often to check if anything changed (in seconds)
+    public static final double UPDATE_PERIOD = 0.25;
+
+    private final Path file;
+    private final Supplier<List<Point>> tunedPoints;
+
+    private final AtomicReference<ShotTable> table;
+    private final Notifier updateThread;
+
+    // What the current table was built from (only used on the update thread)
+    private List<Point> lastTunedPoints;
+    private FileTime lastModified;
+    private List<Point> filePoints;
+
+    public ShotTableReloader(Path file, Supplier<List<Point>> tunedPoints) {
+        this.file = file;
+        this.tunedPoints = tunedPoints;
+
+        this.lastTunedPoints = null;
+        this.lastModified = null;
+        this.filePoints = new ArrayList<>();
+
+        this.table = new AtomicReference<>();
+        update();
+
+        updateThread = new Notifier(this::update);
+        updateThread.setName("Shot Map");
+        updateThread.startPeriodic(UPDATE_PERIOD);
+    }
+
+    public ShotTable get() {
+        return table.get();
+    }
+
+    private FileTime getLastModified() {
+        try {
+            return Files.getLastModifiedTime(file);
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    private synchronized void update() {
+        List<Point> tuned = tunedPoints.get();
+        FileTime modified = getLastModified();
+
+        boolean fileChanged = modified != null && !modified.equals(lastModified);
+        if (!fileChanged && tuned.equals(lastTunedPoints)) {
+            return;
+        }
+
+        // if the file is being written or is broken, keep the last points that worked
+        if (fileChanged) {
+            try {
+                filePoints = ShotTable.readPoints(file);
+            } catch (IOException e) {
+                DriverStation.reportError(
+                        "Error Reading Shot Map \"" + file + "\"!", e.getStackTrace());
+            }
+        } else if (modified == null && lastModified == null && lastTunedPoints == null) {
+            DriverStation.reportError("Unable To Find Shot Map \"" + file + "\"!", false);
+        }
+
+        List<Point> points = new ArrayList<>(tuned);
+        points.addAll(filePoints);
+
+        ShotTable current = table.get();
+        int version = current == null ? 0 : current.getVersion() + 1;
+
+        try {
+            table.set(new ShotTable(points, version));
+        } catch (IllegalArgumentException e) {
+            DriverStation.reportError("Error Building Shot Map: " + e.getMessage(), false);
+        }
+
+        lastTunedPoints = tuned;
+        lastModified = modified;
+    }
+}
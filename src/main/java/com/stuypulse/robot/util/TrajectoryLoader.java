@@ -10,17 +10,78 @@ import com.stuypulse.robot.constants.Settings.Drivetrain.Motion;
 
 import edu.wpi.first.math.geometry.Pose2d;
 import edu.wpi.first.math.geometry.Rotation2d;
+import edu.wpi.first.math.geometry.Transform2d;
 import edu.wpi.first.math.trajectory.Trajectory;
+import edu.wpi.first.math.trajectory.Trajectory.State;
 import edu.wpi.first.math.trajectory.TrajectoryConfig;
 import edu.wpi.first.math.trajectory.TrajectoryGenerator;
 import edu.wpi.first.math.trajectory.TrajectoryUtil;
 import edu.wpi.first.wpilibj.DriverStation;
 
 import java.io.IOException;
+import java.lang.ref.SoftReference;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
 
+/*-
+ * Loads PathWeaver trajectories from the deploy directory.
+ *
+ * Many autons share the same paths, so every trajectory (and every concatenation /
+ * transformation of them) is cached the first time it is loaded and shared after that.
+ * The cache only holds soft references, so the JVM can still throw trajectories
+ * away if the roboRIO runs low on memory, and they will be loaded again if needed.
+ */
 public final class TrajectoryLoader {
 
+    // What identifies a trajectory in the cache
+    private static final class Key {
+        private final List<String> paths;
+        private final Transform2d transform;
+
+        public Key(String[] paths, Transform2d transform) {
+            this.paths = List.of(paths);
+            this.transform = transform;
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            if (!(other instanceof Key)) {
+                return false;
+            }
+
+            Key key = (Key) other;
+            return paths.equals(key.paths) && transform.equals(key.transform);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(paths, transform);
+        }
+    }
+
+    private static final Transform2d NO_TRANSFORM = new Transform2d();
+
+    private static final ConcurrentHashMap<Key, SoftReference<Trajectory>> CACHE =
+            new ConcurrentHashMap<>();
+
+    private static final AtomicLong CACHE_HITS = new AtomicLong();
+    private static final AtomicLong CACHE_MISSES = new AtomicLong();
+    private static final AtomicLong LOAD_NANOSECONDS = new AtomicLong();
+
+    // Binary trajectory files made by the compileTrajectories task in build.gradle
+    private static final int BINARY_MAGIC = 0x44545241; // "DTRA"
+    private static final int BINARY_VERSION = 1;
+    private static final int BINARY_HEADER_BYTES = 3 * Integer.BYTES;
+    private static final int BINARY_SAMPLE_BYTES = 7 * Double.BYTES;
+
     private static final TrajectoryConfig MAX_SPEED_TRAJECTORY =
             new TrajectoryConfig(Motion.MAX_VELOCITY, Motion.MAX_ACCELERATION)
                     .setKinematics(Settings.Drivetrain.Motion.KINEMATICS);
@@ -33,11 +94,77 @@ public final class TrajectoryLoader {
                     new TrajectoryConfig(0.1, 0.1)
                             .setKinematics(Settings.Drivetrain.Motion.KINEMATICS));
 
+    // Gets where the compiled version of a path weaver json file would be
+    public static Path getBinaryPath(Path json) {
+        return json.resolveSibling(json.getFileName().toString().replace(".json", ".bin"));
+    }
+
+    // Reads a compiled trajectory by memory mapping it, which skips parsing json entirely
+    public static Trajectory readBinary(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            ByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+
+            if (buffer.remaining() < BINARY_HEADER_BYTES
+                    || buffer.getInt() != BINARY_MAGIC
+                    || buffer.getInt() != BINARY_VERSION) {
+                throw new IOException("\"" + path + "\" is not a compiled trajectory!");
+            }
+
+            int samples = buffer.getInt();
+            if (samples <= 0 || buffer.remaining() != samples * BINARY_SAMPLE_BYTES) {
+                throw new IOException("\"" + path + "\" is the wrong size!");
+            }
+
+            List<State> states = new ArrayList<>(samples);
+            for (int i = 0; i < samples; ++i) {
+                double time = buffer.getDouble();
+                double x = buffer.getDouble();
+                double y = buffer.getDouble();
+                double heading = buffer.getDouble();
+                double velocity = buffer.getDouble();
+                double acceleration = buffer.getDouble();
+                double curvature = buffer.getDouble();
+
+                states.add(
+                        new State(
+                                time,
+                                velocity,
+                                acceleration,
+                                new Pose2d(x, y, new Rotation2d(heading)),
+                                curvature));
+            }
+
+            return new Trajectory(states);
+        }
+    }
+
+    // Reads a path weaver json file
+    public static Trajectory readJson(Path path) throws IOException {
+        return TrajectoryUtil.fromPathweaverJson(path);
+    }
+
+    // Reads the compiled version of a path if it exists, otherwise the json
+    private static Trajectory read(Path json) throws IOException {
+        Path binary = getBinaryPath(json);
+
+        if (Files.exists(binary)) {
+            try {
+                return readBinary(binary);
+            } catch (IOException e) {
+                Settings.reportWarning("Error Reading \"" + binary + "\", Using Json Instead!");
+            }
+        }
+
+        return readJson(json);
+    }
+
     // Function that gets a trajectory from path weaver,
     // but will give a default one if it has an issue
-    public static Trajectory getTrajectory(String path) {
+    private static Trajectory load(String path) {
+        long start = System.nanoTime();
+
         try {
-            return TrajectoryUtil.fromPathweaverJson(Settings.DEPLOY_DIRECTORY.resolve(path));
+            return read(Settings.DEPLOY_DIRECTORY.resolve(path));
         } catch (IOException e) {
             DriverStation.reportError("Error Opening \"" + path + "\"!", e.getStackTrace());
 
@@ -46,20 +173,72 @@ public final class TrajectoryLoader {
             System.exit(694);
 
             return DEFAULT_TRAJECTORY;
+        } finally {
+            LOAD_NANOSECONDS.addAndGet(System.nanoTime() - start);
         }
     }
 
+    // Gets a trajectory from path weaver
+    public static Trajectory getTrajectory(String path) {
+        return getTrajectory(NO_TRANSFORM, path);
+    }
+
     // Function that gets multiple trajectories and concatinates them together
     public static Trajectory getTrajectory(String... paths) {
-        Trajectory trajectory = getTrajectory(paths[0]);
+        return getTrajectory(NO_TRANSFORM, paths);
+    }
 
-        for (int i = 1; i < paths.length; ++i) {
-            trajectory = trajectory.concatenate(getTrajectory(paths[i]));
+    // Gets multiple trajectories, concatinates them together and then transforms the result
+    public static Trajectory getTrajectory(Transform2d transform, String... paths) {
+        Key key = new Key(paths, transform);
+
+        SoftReference<Trajectory> cached = CACHE.get(key);
+        Trajectory trajectory = cached == null ? null : cached.get();
+
+        if (trajectory != null) {
+            CACHE_HITS.incrementAndGet();
+            return trajectory;
         }
 
+        CACHE_MISSES.incrementAndGet();
+
+        // build it out of the smaller trajectories, so those get cached too
+        if (!transform.equals(NO_TRANSFORM)) {
+            trajectory = getTrajectory(paths).transformBy(transform);
+        } else if (paths.length == 1) {
+            trajectory = load(paths[0]);
+        } else {
+            trajectory = getTrajectory(paths[0]);
+
+            for (int i = 1; i < paths.length; ++i) {
+                trajectory = trajectory.concatenate(getTrajectory(paths[i]));
+            }
+        }
+
+        // two threads may both load the same trajectory, which is fine as they are identical
+        CACHE.put(key, new SoftReference<>(trajectory));
         return trajectory;
     }
 
+    /*** Cache Statistics ***/
+
+    public static long getCacheHits() {
+        return CACHE_HITS.get();
+    }
+
+    public static long getCacheMisses() {
+        return CACHE_MISSES.get();
+    }
+
+    // Total time spent reading trajectory files (in seconds)
+    public static double getLoadTime() {
+        return LOAD_NANOSECONDS.get() / 1e9;
+    }
+
+    public static void clearCache() {
+        CACHE.clear();
+    }
+
     // Generates a straight line trajectory, handles moving backwards.
     // Is centered at (0,0), so relativity must be handled by calling command,
     // which can be done by setting robot odometry or by doing trajectory.relativeTo
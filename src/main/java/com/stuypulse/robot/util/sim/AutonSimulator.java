@@ -0,0 +1,244 @@
+/************************ PROJECT DORCAS ************************/
+/* Copyright (c) 2022 StuyPulse Robotics. All rights reserved.  */
+/* This work is licensed under the terms of the MIT license.    */
+/****************************************************************/
+
+package com.stuypulse.robot.util.sim;
+
+import com.stuypulse.robot.RobotContainer;
+import com.stuypulse.robot.commands.auton.*;
+import com.stuypulse.robot.commands.auton.battlecry.*;
+import com.stuypulse.robot.commands.auton.chezy.*;
+import com.stuypulse.robot.commands.conveyor.modes.ConveyorMode;
+
+import edu.wpi.first.hal.AllianceStationID;
+import edu.wpi.first.math.geometry.Pose2d;
+import edu.wpi.first.wpilibj.TimedRobot;
+import edu.wpi.first.wpilibj.simulation.DriverStationSim;
+import edu.wpi.first.wpilibj.simulation.SimHooks;
+import edu.wpi.first.wpilibj2.command.Command;
+import edu.wpi.first.wpilibj2.command.CommandScheduler;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+/*-
+ * Runs every auton in simulation as fast as the computer can.
+ *
+ * Instead of waiting for the real clock, the simulator pauses the FPGA clock and steps
+ * it forward by one robot period after every cycle, so a 15 second auton takes however
+ * long the code takes to run 750 cycles. Between cycles it updates the simulated
+ * Limelight and balls, and it times how long each run of the CommandScheduler takes.
+ *
+ * All of the autons run one after another on the same RobotContainer, because the
+ * hardware can only be allocated once. The robot is disabled for a few seconds between
+ * autons so the flywheels and drivetrain come to a stop.
+ */
+public class AutonSimulator {
+
+    private static final double PERIOD = TimedRobot.kDefaultPeriod;
+
+    private static final double AUTON_LENGTH = 15.0;
+    private static final double RESET_TIME = 3.0;
+
+    private static final int PRELOADED_BALLS = 1;
+
+    private static class Auton {
+        public final String name;
+        public final Function<RobotContainer, Command> factory;
+
+        public Auton(String name, Function<RobotContainer, Command> factory) {
+            this.name = name;
+            this.factory = factory;
+        }
+    }
+
+    public static class Result {
+        public final String name;
+        public final boolean finished;
+        public final double time;
+        public final int ballsShot;
+        public final double averageCycleTime;
+        public final double maxCycleTime;
+
+        public Result(
+                String name,
+                boolean finished,
+                double time,
+                int ballsShot,
+                double averageCycleTime,
+                double maxCycleTime) {
+            this.name = name;
+            this.finished = finished;
+            this.time = time;
+            this.ballsShot = ballsShot;
+            this.averageCycleTime = averageCycleTime;
+            this.maxCycleTime = maxCycleTime;
+        }
+    }
+
+    private final RobotContainer robot;
+    private final SimLimelight limelight;
+    private final SimConveyor balls;
+
+    private final List<Auton> autons;
+
+    public AutonSimulator() {
+        DriverStationSim.setAllianceStationId(AllianceStationID.Red1);
+        DriverStationSim.setDsAttached(true);
+        setMode(false, false);
+
+        robot = new RobotContainer();
+        limelight = new SimLimelight(robot.drivetrain::getOdometryPose);
+        balls = new SimConveyor(robot.drivetrain, robot.intake, robot.conveyor, robot.shooter);
+
+        autons = new ArrayList<>();
+
+        // RobotContainer.configureAutons()
+        addAuton("0 Ball", MobilityAuton.NoEncoders::new);
+        addAuton("2 Ball", TwoBallAuton::new);
+        addAuton("2 Ball Sam Mean", TwoBallMeanerAuton::new);
+        addAuton("5 Ball", FiveBallAuton::new);
+        addAuton("Partner Ball", PartnerBallAuton::new);
+        addAuton("Two Ball One Mean", TwoBallOneMeanAuton::new);
+        addAuton("Four Ball", FourBallAuton::new);
+
+        // Older autons
+        addAuton("Do Nothing", robot -> new DoNothingAuton());
+        addAuton("1 Ball", OneBallAuton::new);
+        addAuton("2 Ball Mean", TwoBallMeanAuton::new);
+
+        // Chezy Champs
+        addAuton("Chezy 3 Ball", ThreeBallAuton::new);
+        addAuton("Chezy 3 Ball Meaner", ThreeBallMeanerAuton::new);
+        addAuton("Chezy 3 Ball One Mean", ThreeBallOneMeanAuton::new);
+        addAuton("Chezy 6 Ball", SixBallAuton::new);
+        addAuton("Chezy Partner Ball", ChezyPartnerBallAuton::new);
+
+        // Battlecry
+        addAuton("Battlecry Blue 5 Ball", BlueFiveBallAuton::new);
+        addAuton("Battlecry 3 Ball Mystery", ThreeBallMysteryAuton::new);
+    }
+
+    private void addAuton(String name, Function<RobotContainer, Command> factory) {
+        autons.add(new Auton(name, factory));
+    }
+
+    public RobotContainer getRobot() {
+        return robot;
+    }
+
+    /*** Stepping ***/
+
+    private static void setMode(boolean enabled, boolean autonomous) {
+        DriverStationSim.setEnabled(enabled);
+        DriverStationSim.setAutonomous(autonomous);
+        DriverStationSim.notifyNewData();
+    }
+
+    /** runs one robot cycle, returning how long the CommandScheduler took (in seconds) */
+    public double step() {
+        limelight.update();
+        balls.update(PERIOD);
+
+        long start = System.nanoTime();
+        CommandScheduler.getInstance().run();
+        double cycleTime = (System.nanoTime() - start) / 1e9;
+
+        SimHooks.stepTiming(PERIOD);
+
+        return cycleTime;
+    }
+
+    /** disables the robot and lets everything come to a stop */
+    public void reset() {
+        setMode(false, false);
+        CommandScheduler.getInstance().cancelAll();
+
+        robot.shooter.setShooterRPM(0.0);
+        robot.intake.stop();
+        robot.intake.retract();
+        robot.conveyor.setMode(ConveyorMode.DEFAULT);
+        robot.drivetrain.stop();
+
+        for (double time = 0.0; time < RESET_TIME; time += PERIOD) {
+            step();
+        }
+
+        robot.drivetrain.reset(new Pose2d());
+        robot.poseEstimator.reset();
+        balls.reset(PRELOADED_BALLS);
+    }
+
+    /*** Running Autons ***/
+
+    public Result run(String name, Command auton) {
+        reset();
+
+        setMode(true, true);
+        robot.colorSensor.getTargetBallUpdate();
+        auton.schedule();
+
+        int cycles = 0;
+        double totalCycleTime = 0.0;
+        double maxCycleTime = 0.0;
+
+        double time = 0.0;
+        while (auton.isScheduled() && time < AUTON_LENGTH) {
+            double cycleTime = step();
+
+            cycles++;
+            totalCycleTime += cycleTime;
+            maxCycleTime = Math.max(maxCycleTime, cycleTime);
+
+            time += PERIOD;
+        }
+
+        boolean finished = !auton.isScheduled();
+        auton.cancel();
+
+        return new Result(
+                name,
+                finished,
+                time,
+                balls.getBallsShot(),
+                totalCycleTime / Math.max(1, cycles),
+                maxCycleTime);
+    }
+
+    public List<Result> runAll() {
+        List<Result> results = new ArrayList<>();
+
+        for (Auton auton : autons) {
+            results.add(run(auton.name, auton.factory.apply(robot)));
+        }
+
+        return results;
+    }
+
+    public static void printResults(List<Result> results) {
+        System.out.printf(
+                "%-28s %10s %6s %14s %14s%n",
+                "Auton", "Time (s)", "Shot", "Avg Cycle (ms)", "Max Cycle (ms)");
+
+        for (Result result : results) {
+            System.out.printf(
+                    "%-28s %10s %6d %14.3f %14.3f%n",
+                    result.name,
+                    result.finished ? String.format("%.2f", result.time) : "DNF",
+                    result.ballsShot,
+                    result.averageCycleTime * 1000.0,
+                    result.maxCycleTime * 1000.0);
+        }
+    }
+
+    public static void run() {
+        long start = System.nanoTime();
+        List<Result> results = new AutonSimulator().runAll();
+        double elapsed = (System.nanoTime() - start) / 1e9;
+
+        printResults(results);
+        System.out.printf("Simulated %d autons in %.2f s%n", results.size(), elapsed);
+    }
+}
@@ -0,0 +1,462 @@
+/************************ PROJECT DORCAS ************************/
+/* Copyright (c) 2022 StuyPulse Robotics. All rights reserved.  */
+/* This work is licensed under the terms of the MIT license.    */
+/****************************************************************/
+
+package com.stuypulse.robot.util.sim;
+
+import com.stuypulse.robot.constants.Settings;
+import com.stuypulse.robot.constants.Settings.ColorSensor.BallRGB;
+import com.stuypulse.robot.util.BallClassifier;
+import com.stuypulse.robot.util.BallClassifier.Result;
+
+import edu.wpi.first.wpilibj.util.Color;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/*-
+ * Builds the BallClassifier lookup table from the color sensor values in our logs.
+ *
+ * Every robot cycle with debug mode on logs the color sensor, whether the IR sensor next to
+ * it saw a ball and which alliance we were on. Each of those cycles becomes a sample, labeled:
+ *      - with logs/ball-labels.csv if the cycle is inside one of its time ranges
+ *      - NONE if the IR sensor did not see a ball
+ * Cycles with a ball that nobody labeled are skipped, so the table only learns what red and
+ * blue balls look like from the hand labeled ranges. No table is written until there are
+ * some of those.
+ *
+ * Every fifth log is kept out of training and used to build the confusion matrices, for the
+ * new table and for the old classifier, so the report shows how they do on cycles the table
+ * has never seen. The table is written to the deploy directory and the report is written to
+ * build/ball-classifier-report.txt.
+ */
+public class BallClassifierTrainer {
+
+    private static final Path LOG_DIRECTORY = Path.of("logs");
+    private static final Path LABELS = LOG_DIRECTORY.resolve("ball-labels.csv");
+    private static final Path REPORT = Path.of("build", "ball-classifier-report.txt");
+
+    private static final String PREFIX = "NT:/SmartDashboard/Debug/Color Sensor/";
+    private static final String ALLIANCE = "NT:/FMSInfo/IsRedAlliance";
+
+    // Values logged within this long of each other are from the same cycle (in microseconds)
+    private static final long CYCLE_GROUPING = 5000;
+
+    // Every TEST_SPLIT-th log is used for testing instead of training
+    private static final int TEST_SPLIT = 5;
+
+    // A cell needs this many samples and this much agreement to not be UNCERTAIN
+    private static final int MIN_SAMPLES = 3;
+    private static final double MIN_AGREEMENT = 0.9;
+
+    // Empty cells are filled from samples in cells up to this many steps away
+    private static final int FILL_RADIUS = 2;
+
+    private static final Result[] LABELS_USED = {Result.NONE, Result.RED, Result.BLUE};
+
+    private static class Sample {
+        public final double red;
+        public final double green;
+        public final double blue;
+
+        public final boolean isRedAlliance;
+        public final boolean hasBall;
+        public final Result label;
+
+        public Sample(
+                double red,
+                double green,
+                double blue,
+                boolean isRedAlliance,
+                boolean hasBall,
+                Result label) {
+            this.red = red;
+            this.green = green;
+            this.blue = blue;
+            this.isRedAlliance = isRedAlliance;
+            this.hasBall = hasBall;
+            this.label = label;
+        }
+    }
+
+    /** A range of time in a log where a person saw which ball was in front of the sensor */
+    private static class Label {
+        public final String log;
+        public final double start;
+        public final double end;
+        public final Result label;
+
+        public Label(String log, double start, double end, Result label) {
+            this.log = log;
+            this.start = start;
+            this.end = end;
+            this.label = label;
+        }
+    }
+
+    private static List<Label> readLabels() throws IOException {
+        List<Label> labels = new ArrayList<>();
+        if (!Files.exists(LABELS)) {
+            return labels;
+        }
+
+        for (String line : Files.readAllLines(LABELS)) {
+            line = line.strip();
+            if (line.isEmpty() || line.startsWith("#")) {
+                continue;
+            }
+
+            String[] values = line.split(",");
+            if (values.length != 4) {
+                throw new IOException("Bad line in \"" + LABELS + "\": " + line);
+            }
+
+            try {
+                labels.add(
+                        new Label(
+                                values[0].strip(),
+                                Double.parseDouble(values[1].strip()),
+                                Double.parseDouble(values[2].strip()),
+                                Result.valueOf(values[3].strip())));
+            } catch (IllegalArgumentException e) {
+                throw new IOException("Bad value in \"" + LABELS + "\": " + line, e);
+            }
+        }
+
+        return labels;
+    }
+
+    /** Reads the cycles out of one log, keeping track of the latest value of everything */
+    private static class LogParser implements WpiLogReader.Listener {
+        private final String log;
+        private final List<Label> labels;
+        private final List<Sample> samples;
+
+        private double red = Double.NaN;
+        private double green = Double.NaN;
+        private double blue = Double.NaN;
+        private boolean connected = false;
+        private boolean hasBall = false;
+        private boolean isRedAlliance = false;
+
+        private boolean pending = false;
+        private long pendingTimestamp = 0;
+
+        public LogParser(String log, List<Label> labels) {
+            this.log = log;
+            this.labels = labels;
+            this.samples = new ArrayList<>();
+        }
+
+        private Result getLabel(double time) {
+            for (Label label : labels) {
+                if (label.log.equals(log) && label.start <= time && time <= label.end) {
+                    return label.label;
+                }
+            }
+
+            return hasBall ? null : Result.NONE;
+        }
+
+        private void addSample() {
+            if (!pending) {
+                return;
+            }
+
+            pending = false;
+            if (!connected || Double.isNaN(red + green + blue)) {
+                return;
+            }
+
+            Result label = getLabel(pendingTimestamp / 1e6);
+            if (label != null) {
+                samples.add(new Sample(red, green, blue, isRedAlliance, hasBall, label));
+            }
+        }
+
+        @Override
+        public void onRecord(String name, String type, long timestamp, ByteBuffer payload) {
+            boolean isColorSensor = name.startsWith(PREFIX);
+            if (!isColorSensor && !name.equals(ALLIANCE)) {
+                return;
+            }
+
+            if (pending && timestamp - pendingTimestamp > CYCLE_GROUPING) {
+                addSample();
+            }
+
+            if (name.equals(ALLIANCE)) {
+                isRedAlliance = payload.get() != 0;
+                return;
+            }
+
+            switch (name.substring(PREFIX.length())) {
+                case "Color R":
+                    red = payload.getDouble();
+                    break;
+                case "Color G":
+                    green = payload.getDouble();
+                    break;
+                case "Color B":
+                    blue = payload.getDouble();
+                    break;
+                case "Is Connected":
+                    connected = payload.get() != 0;
+                    break;
+                case "Has Any Ball":
+                    hasBall = payload.get() != 0;
+                    break;
+                default:
+                    return;
+            }
+
+            if (!pending) {
+                pending = true;
+                pendingTimestamp = timestamp;
+            }
+        }
+
+        public List<Sample> finish() {
+            addSample();
+            return samples;
+        }
+    }
+
+    private static List<Path> findLogs() throws IOException {
+        try (Stream<Path> files = Files.list(LOG_DIRECTORY)) {
+            return files.filter(path -> path.toString().endsWith(".wpilog"))
+                    .sorted()
+                    .collect(Collectors.toList());
+        }
+    }
+
+    /*** Training ***/
+
+    private static int getCell(Sample sample) {
+        return BallClassifier.getCell(sample.red, sample.green, sample.blue);
+    }
+
+    private static Result decide(int[] counts) {
+        int total = 0;
+        int best = 0;
+
+        for (int i = 0; i < counts.length; ++i) {
+            total += counts[i];
+            if (counts[i] > counts[best]) {
+                best = i;
+            }
+        }
+
+        if (total >= MIN_SAMPLES && counts[best] >= MIN_AGREEMENT * total) {
+            return LABELS_USED[best];
+        } else {
+            return Result.UNCERTAIN;
+        }
+    }
+
+    private static boolean hasBallSamples(List<Sample> samples) {
+        for (Sample sample : samples) {
+            if (sample.label != Result.NONE) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static BallClassifier train(List<Sample> samples) {
+        final int steps = BallClassifier.STEPS;
+        int[][] counts = new int[BallClassifier.CELLS][LABELS_USED.length];
+
+        for (Sample sample : samples) {
+            counts[getCell(sample)][sample.label.ordinal()]++;
+        }
+
+        byte[] table = new byte[BallClassifier.CELLS];
+
+        for (int r = 0; r < steps; ++r) {
+            for (int g = 0; g < steps; ++g) {
+                for (int b = 0; b < steps; ++b) {
+                    int cell = (r * steps + g) * steps + b;
+                    int[] cellCounts = counts[cell];
+
+                    // look further away until there are enough samples to go on
+                    for (int radius = 1; radius <= FILL_RADIUS; ++radius) {
+                        if (cellCounts[0] + cellCounts[1] + cellCounts[2] >= MIN_SAMPLES) {
+                            break;
+                        }
+
+                        cellCounts = new int[LABELS_USED.length];
+                        for (int dr = -radius; dr <= radius; ++dr) {
+                            for (int dg = -radius; dg <= radius; ++dg) {
+                                for (int db = -radius; db <= radius; ++db) {
+                                    int nr = r + dr;
+                                    int ng = g + dg;
+                                    int nb = b + db;
+                                    if (nr < 0 || ng < 0 || nb < 0) continue;
+                                    if (nr >= steps || ng >= steps || nb >= steps) continue;
+
+                                    int[] near = counts[(nr * steps + ng) * steps + nb];
+                                    for (int i = 0; i < cellCounts.length; ++i) {
+                                        cellCounts[i] += near[i];
+                                    }
+                                }
+                            }
+                        }
+                    }
+
+                    table[cell] = (byte) decide(cellCounts).ordinal();
+                }
+            }
+        }
+
+        return new BallClassifier(table);
+    }
+
+    /*** Testing ***/
+
+    // The classifier ColorSensor used before this one
+    private static Result classifyOld(Sample sample) {
+        Color color = new Color(sample.red, sample.green, sample.blue);
+
+        double redError = getColorDistance(color, BallRGB.RED);
+        double blueError = getColorDistance(color, BallRGB.BLUE);
+
+        if (sample.isRedAlliance) {
+            redError /= Settings.ColorSensor.TARGET_BIAS.get();
+        } else {
+            blueError /= Settings.ColorSensor.TARGET_BIAS.get();
+        }
+
+        return redError < blueError ? Result.RED : Result.BLUE;
+    }
+
+    private static double getColorDistance(Color a, Color b) {
+        double dr = a.red - b.red;
+        double dg = a.green - b.green;
+        double db = a.blue - b.blue;
+        return dr * dr + dg * dg + db * db;
+    }
+
+    private static void printConfusionMatrix(
+            PrintStream out, String title, List<Sample> samples, BallClassifier classifier) {
+        int[][] matrix = new int[LABELS_USED.length][Result.values().length];
+        int correct = 0;
+        int total = 0;
+
+        for (Sample sample : samples) {
+            Result result;
+            if (classifier != null) {
+                result = classifier.classify(sample.red, sample.green, sample.blue);
+            } else if (sample.hasBall) {
+                result = classifyOld(sample);
+            } else {
+                continue;
+            }
+
+            matrix[sample.label.ordinal()][result.ordinal()]++;
+            correct += result == sample.label ? 1 : 0;
+            total++;
+        }
+
+        out.printf("%n%s (%d samples, %.1f%% correct)%n", title, total, 100.0 * correct / total);
+        out.printf("%-12s", "label \\ got");
+        for (Result result : Result.values()) {
+            out.printf(" %10s", result);
+        }
+        out.println();
+
+        for (Result label : LABELS_USED) {
+            out.printf("%-12s", label);
+            for (Result result : Result.values()) {
+                out.printf(" %10d", matrix[label.ordinal()][result.ordinal()]);
+            }
+            out.println();
+        }
+    }
+
+    private static void printReport(
+            PrintStream out,
+            int logs,
+            int labels,
+            List<Sample> training,
+            List<Sample> testing,
+            BallClassifier classifier) {
+        int[] cells = new int[Result.values().length];
+        for (int cell = 0; cell < BallClassifier.CELLS; ++cell) {
+            int r = cell / (BallClassifier.STEPS * BallClassifier.STEPS);
+            int g = (cell / BallClassifier.STEPS) % BallClassifier.STEPS;
+            int b = cell % BallClassifier.STEPS;
+
+            double half = 0.5 / BallClassifier.STEPS;
+            double step = 1.0 / BallClassifier.STEPS;
+            cells[classifier.classify(r * step + half, g * step + half, b * step + half)
+                            .ordinal()]++;
+        }
+
+        out.printf("Logs: %d, hand labeled ranges: %d%n", logs, labels);
+        out.printf(
+                "Samples: %d training, %d testing (every %dth log)%n",
+                training.size(), testing.size(), TEST_SPLIT);
+
+        out.printf("Table cells (%d bits per channel):", BallClassifier.BITS);
+        for (Result result : Result.values()) {
+            out.printf(" %s %d", result, cells[result.ordinal()]);
+        }
+        out.println();
+
+        printConfusionMatrix(out, "Lookup table", testing, classifier);
+        printConfusionMatrix(out, "Old classifier, when the IR sees a ball", testing, null);
+    }
+
+    public static void run() {
+        try {
+            List<Label> labels = readLabels();
+            List<Path> logs = findLogs();
+
+            List<Sample> training = new ArrayList<>();
+            List<Sample> testing = new ArrayList<>();
+
+            for (int i = 0; i < logs.size(); ++i) {
+                Path log = logs.get(i);
+                LogParser parser = new LogParser(log.getFileName().toString(), labels);
+                WpiLogReader.read(log, parser);
+
+                if (i % TEST_SPLIT == TEST_SPLIT - 1) {
+                    testing.addAll(parser.finish());
+                } else {
+                    training.addAll(parser.finish());
+                }
+            }
+
+            if (!hasBallSamples(training)) {
+                System.out.println(
+                        "No hand labeled balls to train from, add some to " + LABELS + "!");
+                return;
+            }
+
+            BallClassifier classifier = train(training);
+            classifier.write(Settings.ColorSensor.CLASSIFIER);
+
+            printReport(System.out, logs.size(), labels.size(), training, testing, classifier);
+
+            Files.createDirectories(REPORT.getParent());
+            try (PrintStream report = new PrintStream(Files.newOutputStream(REPORT))) {
+                printReport(report, logs.size(), labels.size(), training, testing, classifier);
+            }
+
+            System.out.println();
+            System.out.println("Wrote " + Settings.ColorSensor.CLASSIFIER + " and " + REPORT);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,72 @@
+/************************ PROJECT DORCAS ************************/
+/* Copyright (c) 2022 StuyPulse Robotics. All rights reserved.  */
+/* This work is licensed under the terms of the MIT license.    */
+/****************************************************************/
+
+package com.stuypulse.robot.util.sim;
+
+import edu.wpi.first.math.controller.SimpleMotorFeedforward;
+
+/*-
+ * A mechanism that behaves exactly like the feedforward sysid fit to it:
+ *
+ *      V = kS * sign(v) + kV * v + kA * a
+ *
+ * Every update solves for the new velocity given the voltage applied to the motors.
+ * The units of position and velocity are whatever units the gains were measured in
+ * (meters for the drivetrain, rotations per minute for the flywheels).
+ */
+public class FeedforwardPlant {
+
+    // Below this speed the mechanism is considered to be stopped
+    private static final double STOPPED_VELOCITY = 1e-3;
+
+    private double position;
+    private double velocity;
+
+    public FeedforwardPlant() {
+        this.position = 0.0;
+        this.velocity = 0.0;
+    }
+
+    public double getPosition() {
+        return position;
+    }
+
+    public double getVelocity() {
+        return velocity;
+    }
+
+    public void resetPosition() {
+        position = 0.0;
+    }
+
+    public void update(double voltage, SimpleMotorFeedforward feedforward, double dt) {
+        update(voltage, feedforward.ks, feedforward.kv, feedforward.ka, dt);
+    }
+
+    public void update(double voltage, double kS, double kV, double kA, double dt) {
+        boolean stopped = Math.abs(velocity) < STOPPED_VELOCITY;
+
+        // static friction holds the mechanism still until the motors can overcome it
+        if (stopped && Math.abs(voltage) <= kS) {
+            velocity = 0.0;
+            return;
+        }
+
+        double direction = stopped ? Math.signum(voltage) : Math.signum(velocity);
+
+        // exact solution of kV * v + kA * a = V - kS * sign(v) over dt
+        double target = (voltage - kS * direction) / kV;
+        double decay = Math.exp(-kV / kA * dt);
+        double next = target + (velocity - target) * decay;
+
+        // friction can stop the mechanism, but it can not make it turn around
+        if (Math.signum(next) == -direction && Math.abs(voltage) <= kS) {
+            next = 0.0;
+        }
+
+        position += (velocity + next) / 2.0 * dt;
+        velocity = next;
+    }
+}
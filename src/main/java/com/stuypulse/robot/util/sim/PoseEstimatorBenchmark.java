@@ -0,0 +1,104 @@
+/************************ PROJECT DORCAS ************************/
+/* Copyright (c) 2022 StuyPulse Robotics. All rights reserved.  */
+/* This work is licensed under the terms of the MIT license.    */
+/****************************************************************/
+
+package com.stuypulse.robot.util.sim;
+
+import com.stuypulse.robot.constants.Field;
+import com.stuypulse.robot.subsystems.Camera;
+import com.stuypulse.robot.subsystems.Drivetrain;
+import com.stuypulse.robot.subsystems.PoseEstimator;
+import com.stuypulse.robot.subsystems.Shooter;
+
+import edu.wpi.first.math.geometry.Pose2d;
+import edu.wpi.first.math.geometry.Rotation2d;
+import edu.wpi.first.math.geometry.Translation2d;
+import edu.wpi.first.networktables.NetworkTableInstance;
+import edu.wpi.first.wpilibj.simulation.SimHooks;
+
+/*-
+ * Times PoseEstimator.periodic() and checks that it finds how far odometry has drifted.
+ *
+ * The robot sits in front of the hub with the limelight facing it, while a SimLimelight
+ * publishes frames from a true pose that is a known distance away from the odometry pose.
+ * Every robot cycle publishes one frame, waits for the Camera to turn it into a
+ * LimelightFrame, and then times one update of the estimator, which fuses the frame
+ * whenever it has a target.
+ *
+ * The timing works like SamplingBenchmark, with warmup cycles that are not counted.
+ */
+public class PoseEstimatorBenchmark {
+
+    private static final int WARMUP_CYCLES = 500;
+    private static final int CYCLES = 5000;
+
+    private static final double PERIOD = 0.02;
+
+    // How far from the hub the robot sits (in meters)
+    private static final double DISTANCE = 3.0;
+
+    // How far odometry is from where the robot really is (in meters)
+    private static final Translation2d DRIFT = new Translation2d(0.4, -0.25);
+
+    public static void run() {
+        Shooter shooter = new Shooter();
+        Camera camera = new Camera(shooter);
+        Drivetrain drivetrain = new Drivetrain();
+        PoseEstimator estimator = new PoseEstimator(camera, drivetrain);
+
+        // the limelight faces the back of the robot, so the robot faces away from the hub
+        Translation2d hub = Field.toOdometry(Field.Hub.CENTER);
+        drivetrain.reset(
+                new Pose2d(hub.minus(new Translation2d(DISTANCE, 0.0)), new Rotation2d(Math.PI)));
+        estimator.reset();
+
+        SimLimelight limelight =
+                new SimLimelight(
+                        () -> {
+                            Pose2d odometry = drivetrain.getOdometryPose();
+                            return new Pose2d(
+                                    odometry.getTranslation().plus(DRIFT),
+                                    odometry.getRotation());
+                        });
+
+        long nanoseconds = 0;
+        long maxNanoseconds = 0;
+        int targets = 0;
+
+        for (int cycle = 0; cycle < WARMUP_CYCLES + CYCLES; ++cycle) {
+            limelight.update();
+            NetworkTableInstance.getDefault().waitForEntryListenerQueue(0.1);
+
+            SimHooks.stepTiming(PERIOD);
+            drivetrain.periodic();
+
+            long start = System.nanoTime();
+            estimator.periodic();
+            long time = System.nanoTime() - start;
+
+            if (cycle >= WARMUP_CYCLES) {
+                nanoseconds += time;
+                maxNanoseconds = Math.max(maxNanoseconds, time);
+                targets += camera.hasAnyTarget() ? 1 : 0;
+            }
+        }
+
+        Translation2d offset = drivetrain.getVisionOffset();
+
+        System.out.printf(
+                "Cycles: %d, %.1f%% with a target, robot %.2f m from the hub%n",
+                CYCLES, 100.0 * targets / CYCLES, DISTANCE);
+        System.out.printf(
+                "PoseEstimator.periodic(): mean %8.1f us, max %8.1f us%n",
+                nanoseconds / (CYCLES * 1e3), maxNanoseconds / 1e3);
+        System.out.printf(
+                "Offset: (%.3f, %.3f) m, drift: (%.3f, %.3f) m, error %.3f m, vision fix: %b%n",
+                offset.getX(),
+                offset.getY(),
+                DRIFT.getX(),
+                DRIFT.getY(),
+                offset.getDistance(DRIFT),
+                estimator.hasVisionFix());
+    }
+}
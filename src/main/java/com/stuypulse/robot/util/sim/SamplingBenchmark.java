@@ -0,0 +1,140 @@
+/************************ PROJECT DORCAS ************************/
+/* Copyright (c) 2022 StuyPulse Robotics. All rights reserved.  */
+/* This work is licensed under the terms of the MIT license.    */
+/****************************************************************/
+
+package com.stuypulse.robot.util.sim;
+
+import com.stuypulse.robot.constants.Settings;
+import com.stuypulse.robot.util.SampledTrajectory;
+import com.stuypulse.robot.util.TrajectoryLoader;
+
+import edu.wpi.first.math.trajectory.Trajectory;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/*-
+ * Compares Trajectory.sample() with SampledTrajectory.sample() on every deployed path.
+ *
+ * Both are given the same random times, and every result is folded into a checksum so
+ * the JIT can not skip the work. A few rounds are run first to warm up the JIT before
+ * anything is timed. The largest difference in position between the two is reported
+ * so we know how much accuracy the resampling costs.
+ */
+public class SamplingBenchmark {
+
+    private static final int SAMPLES = 100_000;
+    private static final int WARMUP_ROUNDS = 5;
+    private static final int ROUNDS = 20;
+
+    private static List<Trajectory> loadTrajectories() {
+        try (Stream<Path> files = Files.walk(Settings.DEPLOY_DIRECTORY)) {
+            return files.filter(path -> path.toString().endsWith(".wpilib.json"))
+                    .sorted()
+                    .map(path -> Settings.DEPLOY_DIRECTORY.relativize(path).toString())
+                    .map(TrajectoryLoader::getTrajectory)
+                    .collect(Collectors.toList());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static double sampleWpilib(Trajectory trajectory, double[] times) {
+        double checksum = 0.0;
+
+        for (double time : times) {
+            Trajectory.State state = trajectory.sample(time);
+            checksum += state.poseMeters.getX() + state.velocityMetersPerSecond;
+        }
+
+        return checksum;
+    }
+
+    private static double sampleFast(SampledTrajectory trajectory, double[] times) {
+        SampledTrajectory.Sample sample = new SampledTrajectory.Sample();
+        double checksum = 0.0;
+
+        for (double time : times) {
+            trajectory.sample(time, sample);
+            checksum += sample.x + sample.velocity;
+        }
+
+        return checksum;
+    }
+
+    private static double getMaxError(
+            Trajectory trajectory, SampledTrajectory sampled, double[] times) {
+        SampledTrajectory.Sample sample = new SampledTrajectory.Sample();
+        double maxError = 0.0;
+
+        for (double time : times) {
+            Trajectory.State state = trajectory.sample(time);
+            sampled.sample(time, sample);
+
+            double error =
+                    Math.hypot(
+                            state.poseMeters.getX() - sample.x,
+                            state.poseMeters.getY() - sample.y);
+            maxError = Math.max(maxError, error);
+        }
+
+        return maxError;
+    }
+
+    public static void run() {
+        List<Trajectory> trajectories = loadTrajectories();
+        Random random = new Random(694);
+
+        int count = trajectories.size();
+        SampledTrajectory[] sampled = new SampledTrajectory[count];
+        double[][] times = new double[count][SAMPLES];
+
+        double maxError = 0.0;
+        for (int i = 0; i < count; ++i) {
+            Trajectory trajectory = trajectories.get(i);
+            sampled[i] = new SampledTrajectory(trajectory);
+
+            for (int j = 0; j < SAMPLES; ++j) {
+                times[i][j] = random.nextDouble() * trajectory.getTotalTimeSeconds();
+            }
+
+            maxError = Math.max(maxError, getMaxError(trajectory, sampled[i], times[i]));
+        }
+
+        double checksum = 0.0;
+        long wpilibNanoseconds = 0;
+        long fastNanoseconds = 0;
+
+        for (int round = 0; round < WARMUP_ROUNDS + ROUNDS; ++round) {
+            long start = System.nanoTime();
+            for (int i = 0; i < count; ++i) {
+                checksum += sampleWpilib(trajectories.get(i), times[i]);
+            }
+            long middle = System.nanoTime();
+            for (int i = 0; i < count; ++i) {
+                checksum += sampleFast(sampled[i], times[i]);
+            }
+            long end = System.nanoTime();
+
+            if (round >= WARMUP_ROUNDS) {
+                wpilibNanoseconds += middle - start;
+                fastNanoseconds += end - middle;
+            }
+        }
+
+        double total = (double) ROUNDS * count * SAMPLES;
+
+        System.out.printf("Trajectories: %d, samples per round: %d%n", count, count * SAMPLES);
+        System.out.printf("Trajectory.sample():        %8.1f ns%n", wpilibNanoseconds / total);
+        System.out.printf("SampledTrajectory.sample(): %8.1f ns%n", fastNanoseconds / total);
+        System.out.printf("Max position difference:    %8.4f m%n", maxError);
+        System.out.printf("(checksum %f)%n", checksum);
+    }
+}
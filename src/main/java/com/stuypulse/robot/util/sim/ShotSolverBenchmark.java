@@ -0,0 +1,302 @@
+/************************ PROJECT DORCAS ************************/
+/* Copyright (c) 2022 StuyPulse Robotics. All rights reserved.  */
+/* This work is licensed under the terms of the MIT license.    */
+/****************************************************************/
+
+package com.stuypulse.robot.util.sim;
+
+import com.stuypulse.robot.constants.Field;
+import com.stuypulse.robot.constants.Settings;
+import com.stuypulse.robot.constants.Settings.Drivetrain.Motion;
+import com.stuypulse.robot.constants.Settings.Shooter.Ball;
+import com.stuypulse.robot.constants.ShotMap;
+import com.stuypulse.robot.util.ShotSolver;
+import com.stuypulse.robot.util.ShotTable;
+
+import edu.wpi.first.math.util.Units;
+
+import java.util.Random;
+
+/*-
+ * Times ShotSolver.solve() and checks that its shots would actually land in the hub.
+ *
+ * Shots are taken from random distances inside the shot map, at random angles to the hub
+ * and while driving at random speeds up to the fastest the drivetrain goes.
+ *
+ * Each ball is flown with its own model instead of the one the solver uses, so a wrong model
+ * in the solver shows up as misses. The ball is thrown from the shooter at the launch angle
+ * with gravity and air drag, plus the velocity of the robot, until it comes back down to the
+ * height of the hub. The only thing taken from the shot map is how fast the ball has to leave
+ * at for an RPM, which is whatever speed makes it land as far as the shot map says that RPM
+ * goes when standing still. How far it lands from the center of the hub is compared with
+ * aiming straight at the hub with the RPM for standing still, and with the miss the solver
+ * predicted for the shot.
+ *
+ * The timing works like SamplingBenchmark, with warmup rounds and a checksum.
+ */
+public class ShotSolverBenchmark {
+
+    private static final int SHOTS = 100_000;
+    private static final int FLOWN_SHOTS = 10_000;
+    private static final int WARMUP_ROUNDS = 5;
+    private static final int ROUNDS = 20;
+
+    // Largest angle to the hub to shoot from (in degrees)
+    private static final double MAX_ANGLE = 20.0;
+
+    // The cargo and where it leaves the shooter
+    private static final double SHOOTER_HEIGHT = Units.inchesToMeters(36.0);
+    private static final double BALL_MASS = 0.27;
+    private static final double BALL_DIAMETER = Units.inchesToMeters(9.5);
+    private static final double DRAG_COEFFICIENT = 0.47;
+    private static final double AIR_DENSITY = 1.2;
+    private static final double GRAVITY = 9.81;
+
+    // Time step to fly balls with (in seconds)
+    private static final double DT = 0.001;
+
+    private static final double DRAG =
+            0.5 * AIR_DENSITY * DRAG_COEFFICIENT * Math.PI * Math.pow(BALL_DIAMETER / 2.0, 2)
+                    / BALL_MASS;
+
+    private static ShotTable loadTable() {
+        ShotTable table = ShotMap.TABLE.get();
+        if (table == null) {
+            throw new IllegalStateException("Unable To Build Shot Map!");
+        }
+        return table;
+    }
+
+    // Distance a ball shot at an RPM goes when standing still, found by searching the table
+    private static double getRange(ShotTable table, double rpm) {
+        double low = table.getMinDistance();
+        double high = table.getMaxDistance();
+
+        for (int i = 0; i < 64; ++i) {
+            double middle = (low + high) / 2.0;
+            if (table.getRPM(middle) < rpm) {
+                low = middle;
+            } else {
+                high = middle;
+            }
+        }
+
+        return (low + high) / 2.0;
+    }
+
+    /**
+     * Throws a ball and returns where it comes down to the height of the hub, or null if it
+     * never gets that high.
+     *
+     * @param speed speed the ball leaves the shooter at (in m/s)
+     * @param aim direction the ball is shot in (in degrees)
+     * @param velocity forward velocity of the robot (in m/s)
+     */
+    private static double[] throwBall(double speed, double aim, double velocity) {
+        double launchAngle = Math.toRadians(Ball.LAUNCH_ANGLE);
+        double ground = speed * Math.cos(launchAngle);
+
+        double x = 0.0;
+        double y = 0.0;
+        double z = SHOOTER_HEIGHT;
+
+        double vx = ground * Math.cos(Math.toRadians(aim)) + velocity;
+        double vy = ground * Math.sin(Math.toRadians(aim));
+        double vz = speed * Math.sin(launchAngle);
+
+        while (vz > 0.0 || z > Field.Hub.HEIGHT) {
+            double lastX = x;
+            double lastY = y;
+            double lastZ = z;
+
+            double drag = DRAG * Math.sqrt(vx * vx + vy * vy + vz * vz);
+            vx -= drag * vx * DT;
+            vy -= drag * vy * DT;
+            vz -= (GRAVITY + drag * vz) * DT;
+
+            x += vx * DT;
+            y += vy * DT;
+            z += vz * DT;
+
+            if (vz < 0.0 && z <= Field.Hub.HEIGHT) {
+                if (lastZ < Field.Hub.HEIGHT) {
+                    return null;
+                }
+
+                double t = (lastZ - Field.Hub.HEIGHT) / (lastZ - z);
+                return new double[] {lastX + (x - lastX) * t, lastY + (y - lastY) * t};
+            }
+        }
+
+        return null;
+    }
+
+    // How far a ball goes at a speed when standing still, 0 if it never gets high enough
+    private static double getThrowRange(double speed) {
+        double[] land = throwBall(speed, 0.0, 0.0);
+        return land == null ? 0.0 : land[0];
+    }
+
+    // Speeds the ball has to leave at to go each distance in the table when standing still
+    private static double[] getLaunchSpeeds(ShotTable table, int count) {
+        double[] speeds = new double[count];
+
+        for (int i = 0; i < count; ++i) {
+            double range =
+                    table.getMinDistance()
+                            + (table.getMaxDistance() - table.getMinDistance()) * i / (count - 1);
+
+            double low = 0.0;
+            double high = 50.0;
+            for (int j = 0; j < 40; ++j) {
+                double middle = (low + high) / 2.0;
+                if (getThrowRange(middle) < range) {
+                    low = middle;
+                } else {
+                    high = middle;
+                }
+            }
+
+            speeds[i] = (low + high) / 2.0;
+        }
+
+        return speeds;
+    }
+
+    // How far from the center of the hub a ball lands
+    private static double fly(
+            ShotTable table,
+            double[] launchSpeeds,
+            double distance,
+            double angle,
+            double velocity,
+            double aim,
+            double rpm) {
+        double position =
+                (getRange(table, rpm) - table.getMinDistance())
+                        / (table.getMaxDistance() - table.getMinDistance())
+                        * (launchSpeeds.length - 1);
+        int index = Math.min((int) position, launchSpeeds.length - 2);
+        double speed =
+                launchSpeeds[index]
+                        + (launchSpeeds[index + 1] - launchSpeeds[index]) * (position - index);
+
+        double hubX = distance * Math.cos(Math.toRadians(angle));
+        double hubY = distance * Math.sin(Math.toRadians(angle));
+
+        double[] land = throwBall(speed, aim, velocity);
+        if (land == null) {
+            return distance;
+        }
+
+        return Math.hypot(land[0] - hubX, land[1] - hubY);
+    }
+
+    private static double solveAll(
+            ShotTable table, double[] distances, double[] angles, double[] velocities) {
+        ShotSolver.Solution solution = new ShotSolver.Solution();
+        double checksum = 0.0;
+
+        for (int i = 0; i < SHOTS; ++i) {
+            ShotSolver.solve(table, distances[i], angles[i], velocities[i], solution);
+            checksum += solution.rpm + solution.yaw;
+        }
+
+        return checksum;
+    }
+
+    public static void run() {
+        ShotTable table = loadTable();
+        Random random = new Random(694);
+
+        double[] distances = new double[SHOTS];
+        double[] angles = new double[SHOTS];
+        double[] velocities = new double[SHOTS];
+
+        double range = table.getMaxDistance() - table.getMinDistance();
+        for (int i = 0; i < SHOTS; ++i) {
+            distances[i] = table.getMinDistance() + random.nextDouble() * range;
+            angles[i] = (random.nextDouble() * 2.0 - 1.0) * MAX_ANGLE;
+            velocities[i] = (random.nextDouble() * 2.0 - 1.0) * Motion.MAX_VELOCITY;
+        }
+
+        // where the balls land
+        double[] launchSpeeds = getLaunchSpeeds(table, 64);
+
+        ShotSolver.Solution solution = new ShotSolver.Solution();
+        double solvedMiss = 0.0;
+        double solvedMaxMiss = 0.0;
+        double predictionError = 0.0;
+        double stillMiss = 0.0;
+        double stillMaxMiss = 0.0;
+        int solvedHits = 0;
+        int stillHits = 0;
+
+        for (int i = 0; i < FLOWN_SHOTS; ++i) {
+            ShotSolver.solve(table, distances[i], angles[i], velocities[i], solution);
+
+            double solved =
+                    fly(
+                            table,
+                            launchSpeeds,
+                            distances[i],
+                            angles[i],
+                            velocities[i],
+                            angles[i] + solution.lead,
+                            solution.rpm);
+            double still =
+                    fly(
+                            table,
+                            launchSpeeds,
+                            distances[i],
+                            angles[i],
+                            velocities[i],
+                            angles[i],
+                            table.getRPM(distances[i]));
+
+            solvedMiss += solved;
+            solvedMaxMiss = Math.max(solvedMaxMiss, solved);
+            solvedHits += solved < Field.Hub.UPPER_RADIUS ? 1 : 0;
+            predictionError += Math.abs(solved - solution.getMiss(0.0));
+
+            stillMiss += still;
+            stillMaxMiss = Math.max(stillMaxMiss, still);
+            stillHits += still < Field.Hub.UPPER_RADIUS ? 1 : 0;
+        }
+
+        // how long solving takes
+        double checksum = 0.0;
+        long nanoseconds = 0;
+
+        for (int round = 0; round < WARMUP_ROUNDS + ROUNDS; ++round) {
+            long start = System.nanoTime();
+            checksum += solveAll(table, distances, angles, velocities);
+            long end = System.nanoTime();
+
+            if (round >= WARMUP_ROUNDS) {
+                nanoseconds += end - start;
+            }
+        }
+
+        System.out.printf(
+                "Shots: %d, %.2f to %.2f m, up to %.1f deg and %.1f m/s%n",
+                SHOTS,
+                table.getMinDistance(),
+                table.getMaxDistance(),
+                MAX_ANGLE,
+                Motion.MAX_VELOCITY);
+        System.out.printf(
+                "Aiming at the hub:   mean miss %6.3f m, max miss %6.3f m, %5.1f%% in%n",
+                stillMiss / FLOWN_SHOTS, stillMaxMiss, 100.0 * stillHits / FLOWN_SHOTS);
+        System.out.printf(
+                "ShotSolver:          mean miss %6.3f m, max miss %6.3f m, %5.1f%% in%n",
+                solvedMiss / FLOWN_SHOTS, solvedMaxMiss, 100.0 * solvedHits / FLOWN_SHOTS);
+        System.out.printf(
+                "Predicted miss:      mean error %6.3f m%n", predictionError / FLOWN_SHOTS);
+        System.out.printf(
+                "ShotSolver.solve():  %8.1f ns (%d iterations)%n",
+                nanoseconds / ((double) ROUNDS * SHOTS),
+                Settings.Shooter.Solver.ITERATIONS);
+        System.out.printf("(checksum %f)%n", checksum);
+    }
+}
@@ -0,0 +1,193 @@
+/************************ PROJECT DORCAS ************************/
+/* Copyright (c) 2022 StuyPulse Robotics. All rights reserved.  */
+/* This work is licensed under the terms of the MIT license.    */
+/****************************************************************/
+
+package com.stuypulse.robot.util.sim;
+
+import com.stuypulse.robot.constants.Field;
+import com.stuypulse.robot.constants.Ports;
+import com.stuypulse.robot.subsystems.Conveyor;
+import com.stuypulse.robot.subsystems.Conveyor.Direction;
+import com.stuypulse.robot.subsystems.Drivetrain;
+import com.stuypulse.robot.subsystems.Intake;
+import com.stuypulse.robot.subsystems.Shooter;
+
+import edu.wpi.first.math.geometry.Translation2d;
+import edu.wpi.first.wpilibj.simulation.DIOSim;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/*-
+ * A very simple model of balls moving through the robot when simulating.
+ *
+ * The conveyor has two places a ball can sit, each with an IR sensor:
+ *      - The gandalf, where a ball lands after the intake picks it up
+ *      - The top belt, where a ball waits to be fed into the shooter
+ *
+ * Balls are picked up when the intake is out and spinning near one of the cargo
+ * positions on the field, move up when the belts run forward, and count as shot when
+ * they are fed into a shooter that is up to speed. The IR sensors are driven through
+ * DIOSim so the Conveyor and ColorSensor subsystems run their real logic.
+ *
+ * The color sensor is not simulated, so every ball is treated as an alliance ball.
+ */
+public class SimConveyor {
+
+    // How close the robot has to be to a ball to pick it up (m)
+    private static final double PICKUP_RADIUS = 0.6;
+
+    // How long balls take to move between each part of the robot (s)
+    private static final double INTAKE_TIME = 0.25;
+    private static final double TRANSFER_TIME = 0.3;
+    private static final double FEED_TIME = 0.15;
+    private static final double EJECT_TIME = 0.3;
+
+    private final Drivetrain drivetrain;
+    private final Intake intake;
+    private final Conveyor conveyor;
+    private final Shooter shooter;
+
+    // IR sensors read false when a ball is in front of them
+    private final DIOSim gandalfIR;
+    private final DIOSim topIR;
+
+    private final List<Translation2d> fieldBalls;
+
+    private boolean gandalfBall;
+    private boolean topBall;
+
+    // How long the current movement of each ball has been happening for
+    private double intakeTime;
+    private double gandalfTime;
+    private double topTime;
+
+    private int ballsShot;
+
+    public SimConveyor(Drivetrain drivetrain, Intake intake, Conveyor conveyor, Shooter shooter) {
+        this.drivetrain = drivetrain;
+        this.intake = intake;
+        this.conveyor = conveyor;
+        this.shooter = shooter;
+
+        this.gandalfIR = new DIOSim(Ports.ColorSensor.BALL_IR_SENSOR);
+        this.topIR = new DIOSim(Ports.Conveyor.TOP_BELT_IR_SENSOR);
+
+        this.fieldBalls = new ArrayList<>();
+
+        reset(1);
+    }
+
+    /** puts the cargo back on the field and loads the robot with some balls */
+    public void reset(int preloaded) {
+        fieldBalls.clear();
+
+        // the cargo positions are for one alliance, the other alliance is rotated around the hub
+        for (Translation2d ball :
+                new Translation2d[] {
+                    Field.Balls.Alliance.UPPER,
+                    Field.Balls.Alliance.MIDDLE,
+                    Field.Balls.Alliance.LOWER,
+                    Field.Balls.Alliance.TERMINAL
+                }) {
+            fieldBalls.add(Field.toOdometry(ball));
+            fieldBalls.add(Field.toOdometry(ball.unaryMinus()));
+        }
+
+        topBall = preloaded >= 1;
+        gandalfBall = preloaded >= 2;
+
+        intakeTime = 0.0;
+        gandalfTime = 0.0;
+        topTime = 0.0;
+
+        ballsShot = 0;
+
+        updateSensors();
+    }
+
+    public int getBallsShot() {
+        return ballsShot;
+    }
+
+    public int getBallsHeld() {
+        return (gandalfBall ? 1 : 0) + (topBall ? 1 : 0);
+    }
+
+    private static boolean isForward(Direction direction) {
+        return direction == Direction.FORWARD || direction == Direction.FORWARD_SLOW;
+    }
+
+    private Translation2d getNearbyBall() {
+        Translation2d robot = drivetrain.getOdometryPose().getTranslation();
+
+        for (Translation2d ball : fieldBalls) {
+            if (ball.getDistance(robot) < PICKUP_RADIUS) {
+                return ball;
+            }
+        }
+
+        return null;
+    }
+
+    private void updateSensors() {
+        gandalfIR.setValue(!gandalfBall);
+        topIR.setValue(!topBall);
+    }
+
+    public void update(double dt) {
+        // Top belt into the shooter
+        if (topBall && isForward(conveyor.getTopBeltDirection()) && shooter.isReady()) {
+            topTime += dt;
+
+            if (topTime >= FEED_TIME) {
+                topBall = false;
+                topTime = 0.0;
+                ballsShot++;
+            }
+        } else {
+            topTime = 0.0;
+        }
+
+        // Gandalf up to the top belt, or out the back of the robot
+        if (gandalfBall && conveyor.getGandalfDirection() == Direction.REVERSE) {
+            gandalfTime += dt;
+
+            if (gandalfTime >= EJECT_TIME) {
+                gandalfBall = false;
+                gandalfTime = 0.0;
+            }
+        } else if (gandalfBall
+                && !topBall
+                && isForward(conveyor.getGandalfDirection())
+                && isForward(conveyor.getTopBeltDirection())) {
+            gandalfTime += dt;
+
+            if (gandalfTime >= TRANSFER_TIME) {
+                gandalfBall = false;
+                topBall = true;
+                gandalfTime = 0.0;
+            }
+        } else {
+            gandalfTime = 0.0;
+        }
+
+        // Field into the gandalf
+        Translation2d nearby = getNearbyBall();
+
+        if (nearby != null && !gandalfBall && intake.isExtended() && intake.getMotorSpeed() > 0.0) {
+            intakeTime += dt;
+
+            if (intakeTime >= INTAKE_TIME) {
+                fieldBalls.remove(nearby);
+                gandalfBall = true;
+                intakeTime = 0.0;
+            }
+        } else {
+            intakeTime = 0.0;
+        }
+
+        updateSensors();
+    }
+}
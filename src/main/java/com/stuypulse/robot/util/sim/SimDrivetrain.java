@@ -0,0 +1,112 @@
+/************************ PROJECT DORCAS ************************/
+/* Copyright (c) 2022 StuyPulse Robotics. All rights reserved.  */
+/* This work is licensed under the terms of the MIT license.    */
+/****************************************************************/
+
+package com.stuypulse.robot.util.sim;
+
+import com.stuypulse.robot.constants.Settings;
+import com.stuypulse.robot.constants.Settings.Drivetrain.Encoders.GearRatio.Stages;
+import com.stuypulse.robot.constants.Settings.Drivetrain.Motion.FeedForward;
+
+import edu.wpi.first.wpilibj.Encoder;
+import edu.wpi.first.wpilibj.simulation.EncoderSim;
+
+/*-
+ * Physics for the drivetrain when running in simulation.
+ *
+ * Each side of the drivetrain is a FeedforwardPlant using the gains sysid fit to the
+ * real robot (in high gear). Low gear trades speed for torque, so kV is multiplied
+ * and kA is divided by the difference between the two gear stages.
+ *
+ * The simulated wheel distances and speeds are written to the Grayhill encoders, and
+ * the heading is worked out from the difference between the sides, so the Drivetrain
+ * reads the sensors exactly the same way it does on the real robot.
+ */
+public class SimDrivetrain {
+
+    // How much slower (and stronger) low gear is than high gear
+    private static final double LOW_GEAR_REDUCTION =
+            Stages.HIGH_GEAR_STAGE / Stages.LOW_GEAR_STAGE;
+
+    private static class Side {
+        private final EncoderSim encoder;
+        private final FeedforwardPlant plant;
+
+        public Side(Encoder encoder) {
+            this.encoder = new EncoderSim(encoder);
+            this.plant = new FeedforwardPlant();
+        }
+
+        public double getDistance() {
+            return plant.getPosition();
+        }
+
+        public void update(double voltage, double kV, double kA, double dt) {
+            plant.update(voltage, FeedForward.kS, kV, kA, dt);
+
+            encoder.setDistance(plant.getPosition());
+            encoder.setRate(plant.getVelocity());
+        }
+
+        public void reset() {
+            plant.resetPosition();
+            encoder.setDistance(0.0);
+        }
+    }
+
+    private final Side left;
+    private final Side right;
+
+    // Counter clockwise positive, like odometry
+    private volatile double heading;
+
+    public SimDrivetrain(Encoder left, Encoder right) {
+        this.left = new Side(left);
+        this.right = new Side(right);
+
+        this.heading = 0.0;
+    }
+
+    /**
+     * Moves the simulation forward in time
+     *
+     * @param leftVoltage voltage applied to the left motors
+     * @param rightVoltage voltage applied to the right motors
+     * @param highGear if the drivetrain is in high gear
+     * @param dt time since the last update (in seconds)
+     */
+    public void update(double leftVoltage, double rightVoltage, boolean highGear, double dt) {
+        double kV = FeedForward.kV;
+        double kA = FeedForward.kA;
+
+        if (!highGear) {
+            kV *= LOW_GEAR_REDUCTION;
+            kA /= LOW_GEAR_REDUCTION;
+        }
+
+        double leftStart = left.getDistance();
+        double rightStart = right.getDistance();
+
+        left.update(leftVoltage, kV, kA, dt);
+        right.update(rightVoltage, kV, kA, dt);
+
+        double leftMoved = left.getDistance() - leftStart;
+        double rightMoved = right.getDistance() - rightStart;
+        heading += (rightMoved - leftMoved) / Settings.Drivetrain.TRACK_WIDTH;
+    }
+
+    /** returns what the NavX would read (in degrees, clockwise positive) */
+    public double getGyroAngle() {
+        return -Math.toDegrees(heading);
+    }
+
+    public void resetGyro() {
+        heading = 0.0;
+    }
+
+    public void resetEncoders() {
+        left.reset();
+        right.reset();
+    }
+}
@@ -0,0 +1,136 @@
+/************************ PROJECT DORCAS ************************/
+/* Copyright (c) 2022 StuyPulse Robotics. All rights reserved.  */
+/* This work is licensed under the terms of the MIT license.    */
+/****************************************************************/
+
+package com.stuypulse.robot.util.sim;
+
+import com.stuypulse.robot.constants.Field;
+import com.stuypulse.robot.constants.Settings.Limelight;
+import com.stuypulse.robot.constants.Settings.Limelight.Sim;
+
+import edu.wpi.first.math.MathUtil;
+import edu.wpi.first.math.geometry.Pose2d;
+import edu.wpi.first.math.geometry.Translation2d;
+import edu.wpi.first.networktables.NetworkTable;
+import edu.wpi.first.networktables.NetworkTableEntry;
+import edu.wpi.first.networktables.NetworkTableInstance;
+import edu.wpi.first.wpilibj.Timer;
+
+import java.util.ArrayDeque;
+import java.util.Random;
+import java.util.function.Supplier;
+
+/*-
+ * Pretends to be the Limelight when running in simulation.
+ *
+ * Every update it looks at where the robot was when the fake frame was "captured",
+ * works out where the hub would appear in the image, and publishes tv/tx/ty/tl to the
+ * limelight table on the local networktables instance, which is exactly where Camera
+ * is listening. This is the inverse of how Camera and the PoseEstimator turn those
+ * values back into a distance and a position, so:
+ *      - The robot pose is treated as the position of the limelight
+ *      - The limelight faces the back of the robot
+ *      - tx is positive to the right and ty is positive upwards
+ *
+ * Noise, pipeline latency and dropped frames are configurable in Settings.Limelight.Sim.
+ */
+public class SimLimelight {
+
+    private static class Sample {
+        public final double timestamp;
+        public final Pose2d pose;
+
+        public Sample(double timestamp, Pose2d pose) {
+            this.timestamp = timestamp;
+            this.pose = pose;
+        }
+    }
+
+    private final Supplier<Pose2d> pose;
+    private final Translation2d hub;
+
+    private final ArrayDeque<Sample> history;
+    private final Random random;
+
+    private final NetworkTableEntry validTarget;
+    private final NetworkTableEntry xAngle;
+    private final NetworkTableEntry yAngle;
+    private final NetworkTableEntry latency;
+
+    public SimLimelight(Supplier<Pose2d> pose) {
+        this.pose = pose;
+        this.hub = Field.toOdometry(Field.Hub.CENTER);
+
+        this.history = new ArrayDeque<>();
+        this.random = new Random(Sim.SEED);
+
+        NetworkTable table = NetworkTableInstance.getDefault().getTable("limelight");
+        this.validTarget = table.getEntry("tv");
+        this.xAngle = table.getEntry("tx");
+        this.yAngle = table.getEntry("ty");
+        this.latency = table.getEntry("tl");
+    }
+
+    // Finds where the robot was when the frame was captured
+    private Pose2d getCapturedPose(double captureTime) {
+        // keep the newest sample that is still older than the capture time
+        while (history.size() > 1 && getSecondOldest().timestamp <= captureTime) {
+            history.removeFirst();
+        }
+
+        return history.getFirst().pose;
+    }
+
+    private Sample getSecondOldest() {
+        var samples = history.iterator();
+        samples.next();
+        return samples.next();
+    }
+
+    public void update() {
+        double now = Timer.getFPGATimestamp();
+        history.addLast(new Sample(now, pose.get()));
+
+        double pipelineLatency =
+                Math.max(0.0, Sim.LATENCY.get() + random.nextGaussian() * Sim.LATENCY_JITTER.get());
+        double captureTime = now - pipelineLatency / 1000.0 - Limelight.IMAGE_CAPTURE_LATENCY;
+
+        Pose2d captured = getCapturedPose(captureTime);
+
+        Translation2d toHub = hub.minus(captured.getTranslation());
+
+        // the limelight looks out of the back of the robot
+        double bearing = Math.atan2(toHub.getY(), toHub.getX());
+        double heading = captured.getRotation().getRadians() + Math.PI;
+        double tx =
+                Math.toDegrees(MathUtil.angleModulus(heading - bearing))
+                        - Limelight.LIMELIGHT_YAW.get();
+
+        // angle up to the edge of the hub
+        double distance = toHub.getNorm() - Limelight.CENTER_TO_HUB;
+        double ty =
+                Math.toDegrees(Math.atan2(Limelight.HEIGHT_DIFFERENCE, distance))
+                        - Limelight.LIMELIGHT_PITCH.get();
+
+        boolean inView =
+                distance > 0.0
+                        && Math.abs(tx) < Sim.HORIZONTAL_FOV / 2.0
+                        && Math.abs(ty) < Sim.VERTICAL_FOV / 2.0;
+
+        boolean dropped = random.nextDouble() < Sim.DROPOUT.get();
+
+        if (inView && !dropped) {
+            validTarget.setDouble(1.0);
+            xAngle.setDouble(tx + random.nextGaussian() * Sim.NOISE.get());
+            yAngle.setDouble(ty + random.nextGaussian() * Sim.NOISE.get());
+        } else {
+            // the real limelight publishes zeros when it has no target
+            validTarget.setDouble(0.0);
+            xAngle.setDouble(0.0);
+            yAngle.setDouble(0.0);
+        }
+
+        latency.setDouble(pipelineLatency);
+    }
+}
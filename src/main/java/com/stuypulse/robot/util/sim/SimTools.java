@@ -0,0 +1,86 @@
+/************************ PROJECT DORCAS ************************/
+/* Copyright (c) 2022 StuyPulse Robotics. All rights reserved.  */
+/* This work is licensed under the terms of the MIT license.    */
+/****************************************************************/
+
+package com.stuypulse.robot.util.sim;
+
+import edu.wpi.first.hal.HAL;
+import edu.wpi.first.wpilibj.simulation.SimHooks;
+
+/*-
+ * Headless tools that run on top of the robot simulation instead of the robot itself.
+ *
+ * They need the WPILib native libraries, so they are started through simulateJava with
+ * the name of the tool in an environment variable (see the sim tool tasks in build.gradle):
+ *
+ *      ./gradlew simulateJava -PsimTool=autons
+ *
+ * Time does not move on its own while a tool is running, tools step it themselves.
+ */
+public final class SimTools {
+
+    public static final String ENV_VAR = "DORCAS_SIM_TOOL";
+
+    private SimTools() {}
+
+    /** returns the name of the tool to run, or null if the robot should run normally */
+    public static String getSelectedTool() {
+        return System.getenv(ENV_VAR);
+    }
+
+    private static void run(String tool) {
+        switch (tool) {
+            case "autons":
+                AutonSimulator.run();
+                break;
+
+            case "trajectories":
+                TrajectoryBenchmark.run();
+                break;
+
+            case "sampling":
+                SamplingBenchmark.run();
+                break;
+
+            case "optimize":
+                TrajectoryOptimizer.run();
+                break;
+
+            case "shots":
+                ShotSolverBenchmark.run();
+                break;
+
+            case "estimator":
+                PoseEstimatorBenchmark.run();
+                break;
+
+            case "colors":
+                BallClassifierTrainer.run();
+                break;
+
+            default:
+                throw new IllegalArgumentException("Unknown sim tool \"" + tool + "\"!");
+        }
+    }
+
+    /** runs a tool and exits, because the robot code leaves threads running behind it */
+    public static void runAndExit(String tool) {
+        if (!HAL.initialize(500, 0)) {
+            throw new IllegalStateException("Failed to initialize the HAL!");
+        }
+
+        SimHooks.pauseTiming();
+
+        int status = 0;
+        try {
+            run(tool);
+        } catch (RuntimeException e) {
+            e.printStackTrace();
+            status = 1;
+        }
+
+        System.out.flush();
+        System.exit(status);
+    }
+}
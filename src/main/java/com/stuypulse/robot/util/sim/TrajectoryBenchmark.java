@@ -0,0 +1,139 @@
+/************************ PROJECT DORCAS ************************/
+/* Copyright (c) 2022 StuyPulse Robotics. All rights reserved.  */
+/* This work is licensed under the terms of the MIT license.    */
+/****************************************************************/
+
+package com.stuypulse.robot.util.sim;
+
+import com.stuypulse.robot.constants.Settings;
+import com.stuypulse.robot.util.TrajectoryLoader;
+
+import edu.wpi.first.math.trajectory.Trajectory;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/*-
+ * Compares loading every deployed trajectory from json and from the binary files made
+ * by the compileTrajectories task.
+ *
+ * The first load of each file is reported separately, because that is what the robot
+ * does when it boots. The rest of the rounds show how fast each format is once the JIT
+ * has warmed up. Every binary trajectory is also checked against its json version.
+ */
+public class TrajectoryBenchmark {
+
+    private static final int ROUNDS = 20;
+
+    // Largest difference allowed between the json and binary versions of a trajectory
+    private static final double EPSILON = 1e-9;
+
+    private interface Reader {
+        Trajectory read(Path path) throws IOException;
+    }
+
+    private static double time(Reader reader, Path path) {
+        try {
+            long start = System.nanoTime();
+            reader.read(path);
+            return (System.nanoTime() - start) / 1e9;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static List<Path> findTrajectories() {
+        try (Stream<Path> files = Files.walk(Settings.DEPLOY_DIRECTORY)) {
+            return files.filter(path -> path.toString().endsWith(".wpilib.json"))
+                    .sorted()
+                    .collect(Collectors.toList());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static void check(Path json, Path binary) {
+        try {
+            List<Trajectory.State> expected = TrajectoryLoader.readJson(json).getStates();
+            List<Trajectory.State> actual = TrajectoryLoader.readBinary(binary).getStates();
+
+            if (expected.size() != actual.size()) {
+                throw new IllegalStateException(
+                        "\"" + binary + "\" has the wrong number of states!");
+            }
+
+            for (int i = 0; i < expected.size(); ++i) {
+                Trajectory.State a = expected.get(i);
+                Trajectory.State b = actual.get(i);
+
+                double timeError = Math.abs(a.timeSeconds - b.timeSeconds);
+                double poseError =
+                        a.poseMeters.getTranslation().getDistance(b.poseMeters.getTranslation());
+                double error = Math.max(timeError, poseError);
+
+                if (error > EPSILON) {
+                    throw new IllegalStateException("\"" + binary + "\" does not match its json!");
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public static void run() {
+        List<Path> trajectories = findTrajectories();
+
+        double coldJson = 0.0;
+        double coldBinary = 0.0;
+        double warmJson = 0.0;
+        double warmBinary = 0.0;
+
+        System.out.printf("%-56s %14s %14s%n", "Trajectory", "Json (ms)", "Binary (ms)");
+
+        for (Path json : trajectories) {
+            Path binary = TrajectoryLoader.getBinaryPath(json);
+            if (!Files.exists(binary)) {
+                throw new IllegalStateException(
+                        "\"" + binary + "\" is missing, run ./gradlew compileTrajectories!");
+            }
+
+            double jsonTime = time(TrajectoryLoader::readJson, json);
+            double binaryTime = time(TrajectoryLoader::readBinary, binary);
+
+            check(json, binary);
+
+            coldJson += jsonTime;
+            coldBinary += binaryTime;
+
+            System.out.printf(
+                    "%-56s %14.3f %14.3f%n",
+                    Settings.DEPLOY_DIRECTORY.relativize(json),
+                    jsonTime * 1000.0,
+                    binaryTime * 1000.0);
+        }
+
+        for (int round = 0; round < ROUNDS; ++round) {
+            for (Path json : trajectories) {
+                warmJson += time(TrajectoryLoader::readJson, json);
+                warmBinary +=
+                        time(TrajectoryLoader::readBinary, TrajectoryLoader.getBinaryPath(json));
+            }
+        }
+
+        System.out.printf(
+                "%-56s %14.3f %14.3f%n",
+                "All trajectories (first load)",
+                coldJson * 1000.0,
+                coldBinary * 1000.0);
+        System.out.printf(
+                "%-56s %14.3f %14.3f%n",
+                "All trajectories (average of " + ROUNDS + " more)",
+                warmJson / ROUNDS * 1000.0,
+                warmBinary / ROUNDS * 1000.0);
+    }
+}
@@ -0,0 +1,237 @@
+/************************ PROJECT DORCAS ************************/
+/* Copyright (c) 2022 StuyPulse Robotics. All rights reserved.  */
+/* This work is licensed under the terms of the MIT license.    */
+/****************************************************************/
+
+package com.stuypulse.robot.util.sim;
+
+import com.stuypulse.robot.constants.Motors;
+import com.stuypulse.robot.constants.Settings;
+import com.stuypulse.robot.constants.Settings.Drivetrain.Motion;
+import com.stuypulse.robot.util.ChainedTrajectory;
+import com.stuypulse.robot.util.DifferentialDriveCurrentConstraint;
+import com.stuypulse.robot.util.TrajectoryLoader;
+
+import edu.wpi.first.math.controller.SimpleMotorFeedforward;
+import edu.wpi.first.math.spline.PoseWithCurvature;
+import edu.wpi.first.math.trajectory.Trajectory;
+import edu.wpi.first.math.trajectory.TrajectoryParameterizer;
+import edu.wpi.first.math.trajectory.TrajectoryUtil;
+import edu.wpi.first.math.trajectory.constraint.DifferentialDriveKinematicsConstraint;
+import edu.wpi.first.math.trajectory.constraint.DifferentialDriveVoltageConstraint;
+import edu.wpi.first.math.trajectory.constraint.TrajectoryConstraint;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/*-
+ * Checks every deployed path against what the drivetrain can actually do, and times
+ * each one again to be as fast as it can be.
+ *
+ * A path is checked by working out the speed and acceleration of each side of the robot
+ * at every state, then the voltage the feedforward would ask for and the current that
+ * would go through each motor. It fails if it needs more than the battery can give, or
+ * more current than the motor controllers are limited to.
+ *
+ * The new timing keeps the same points and only changes how fast they are driven through,
+ * limited by the voltage we let the feedforward use (Motion.MAX_VOLTAGE) and the current
+ * limit. Paths are independent of each other, so they are all worked on in parallel.
+ *
+ * The new paths are written to build/optimized-trajectories (with the same layout as the
+ * deploy directory) and a report of how much time each auton would save is written to
+ * build/trajectory-report.txt. Nothing in the deploy directory is changed, copy over
+ * the paths that look good after testing them on the robot.
+ */
+public class TrajectoryOptimizer {
+
+    private static final Path OUTPUT_DIRECTORY = Path.of("build", "optimized-trajectories");
+    private static final Path REPORT = Path.of("build", "trajectory-report.txt");
+
+    private static final double BATTERY_VOLTAGE = 12.0;
+
+    private static final SimpleMotorFeedforward FEED_FORWARD = Motion.MOTOR_FEED_FORWARD;
+    private static final double CURRENT_LIMIT = Motors.Drivetrain.CURRENT_LIMIT_AMPS;
+
+    private static final DifferentialDriveCurrentConstraint CURRENT_CONSTRAINT =
+            new DifferentialDriveCurrentConstraint(
+                    FEED_FORWARD, Motion.KINEMATICS, CURRENT_LIMIT);
+
+    // Fastest a wheel can go while leaving room for feedback
+    private static final double MAX_VELOCITY =
+            (Motion.MAX_VOLTAGE - FEED_FORWARD.ks) / FEED_FORWARD.kv;
+    private static final double MAX_ACCELERATION = CURRENT_CONSTRAINT.getMaxAcceleration();
+
+    private static final List<TrajectoryConstraint> CONSTRAINTS =
+            List.of(
+                    new DifferentialDriveKinematicsConstraint(Motion.KINEMATICS, MAX_VELOCITY),
+                    new DifferentialDriveVoltageConstraint(
+                            FEED_FORWARD, Motion.KINEMATICS, Motion.MAX_VOLTAGE),
+                    CURRENT_CONSTRAINT);
+
+    private static class Result {
+        public final String path;
+        public final String auton;
+
+        public final double originalTime;
+        public final double optimizedTime;
+
+        public final double maxVoltage;
+        public final double maxCurrent;
+
+        public Result(String path, Trajectory original, Trajectory optimized) {
+            this.path = path;
+            this.auton = Path.of(path).getName(0).toString();
+
+            this.originalTime = original.getTotalTimeSeconds();
+            this.optimizedTime = optimized.getTotalTimeSeconds();
+
+            double maxVoltage = 0.0;
+            double maxCurrent = 0.0;
+
+            for (Trajectory.State state : original.getStates()) {
+                double turn =
+                        state.curvatureRadPerMeter * Motion.KINEMATICS.trackWidthMeters / 2.0;
+
+                for (double scale : new double[] {1.0 - turn, 1.0 + turn}) {
+                    double velocity = state.velocityMetersPerSecond * scale;
+                    double acceleration = state.accelerationMetersPerSecondSq * scale;
+
+                    double voltage = FEED_FORWARD.calculate(velocity, acceleration);
+                    double current =
+                            DifferentialDriveCurrentConstraint.getCurrent(
+                                    FEED_FORWARD, velocity, acceleration);
+
+                    maxVoltage = Math.max(maxVoltage, Math.abs(voltage));
+                    maxCurrent = Math.max(maxCurrent, Math.abs(current));
+                }
+            }
+
+            this.maxVoltage = maxVoltage;
+            this.maxCurrent = maxCurrent;
+        }
+
+        public boolean isFeasible() {
+            return maxVoltage <= BATTERY_VOLTAGE && maxCurrent <= CURRENT_LIMIT;
+        }
+
+        public double getTimeSaved() {
+            return originalTime - optimizedTime;
+        }
+    }
+
+    private static List<String> findTrajectories() {
+        try (Stream<Path> files = Files.walk(Settings.DEPLOY_DIRECTORY)) {
+            return files.filter(path -> path.toString().endsWith(".wpilib.json"))
+                    .sorted()
+                    .map(path -> Settings.DEPLOY_DIRECTORY.relativize(path).toString())
+                    .collect(Collectors.toList());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // Times the points of a trajectory again under the constraints
+    public static Trajectory optimize(Trajectory trajectory) {
+        List<PoseWithCurvature> points = new ArrayList<>();
+
+        for (Trajectory.State state : trajectory.getStates()) {
+            // the parameterizer can not handle two points in the same place
+            if (!points.isEmpty()) {
+                PoseWithCurvature last = points.get(points.size() - 1);
+                double distance =
+                        last.poseMeters
+                                .getTranslation()
+                                .getDistance(state.poseMeters.getTranslation());
+
+                if (distance < 1e-6) {
+                    continue;
+                }
+            }
+
+            points.add(new PoseWithCurvature(state.poseMeters, state.curvatureRadPerMeter));
+        }
+
+        return TrajectoryParameterizer.timeParameterizeTrajectory(
+                points,
+                CONSTRAINTS,
+                0.0,
+                0.0,
+                MAX_VELOCITY,
+                MAX_ACCELERATION,
+                ChainedTrajectory.isReversed(trajectory));
+    }
+
+    private static Result optimizeFile(String path) {
+        try {
+            Trajectory original =
+                    TrajectoryLoader.readJson(Settings.DEPLOY_DIRECTORY.resolve(path));
+            Trajectory optimized = optimize(original);
+
+            Path output = OUTPUT_DIRECTORY.resolve(path);
+            Files.createDirectories(output.getParent());
+            TrajectoryUtil.toPathweaverJson(optimized, output);
+
+            return new Result(path, original, optimized);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static void printReport(List<Result> results, PrintStream out) {
+        out.printf(
+                "Limits: %.2f m/s, %.2f m/s^2, %.1f V, %.0f A%n%n",
+                MAX_VELOCITY, MAX_ACCELERATION, Motion.MAX_VOLTAGE, CURRENT_LIMIT);
+
+        out.printf(
+                "%-64s %9s %9s %9s %9s %9s%n",
+                "Trajectory", "Old (s)", "New (s)", "Max (V)", "Max (A)", "Feasible");
+
+        for (Result result : results) {
+            out.printf(
+                    "%-64s %9.2f %9.2f %9.2f %9.1f %9s%n",
+                    result.path,
+                    result.originalTime,
+                    result.optimizedTime,
+                    result.maxVoltage,
+                    result.maxCurrent,
+                    result.isFeasible() ? "yes" : "NO");
+        }
+
+        Map<String, Double> saved = new TreeMap<>();
+        for (Result result : results) {
+            saved.merge(result.auton, result.getTimeSaved(), Double::sum);
+        }
+
+        out.printf("%n%-32s %9s%n", "Auton", "Saved (s)");
+        for (Map.Entry<String, Double> auton : saved.entrySet()) {
+            out.printf("%-32s %9.2f%n", auton.getKey(), auton.getValue());
+        }
+    }
+
+    public static void run() {
+        List<Result> results =
+                findTrajectories().parallelStream()
+                        .map(TrajectoryOptimizer::optimizeFile)
+                        .collect(Collectors.toList());
+
+        printReport(results, System.out);
+
+        try (PrintStream report = new PrintStream(Files.newOutputStream(REPORT))) {
+            printReport(results, report);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        System.out.println();
+        System.out.println("Wrote " + OUTPUT_DIRECTORY + " and " + REPORT);
+    }
+}
@@ -0,0 +1,125 @@
+/************************ PROJECT DORCAS ************************/
+/* Copyright (c) 2022 StuyPulse Robotics. All rights reserved.  */
+/* This work is licensed under the terms of the MIT license.    */
+/****************************************************************/
+
+package com.stuypulse.robot.util.sim;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+
+/*-
+ * Reads the .wpilog files written by DataLogManager.
+ *
+ * WPILib 2022 can only write these files, so this follows the format in the DataLog spec:
+ *
+ *      "WPILOG", short version, int header length, header
+ *      then records, each starting with a byte saying how many bytes the next three fields use:
+ *          entry id, payload size, timestamp (in microseconds), payload
+ *
+ * Entry 0 is used for control records, which give each entry id a name and a type.
+ * Everything is little endian.
+ */
+public class WpiLogReader {
+
+    private static final byte[] MAGIC = "WPILOG".getBytes(StandardCharsets.US_ASCII);
+
+    private static final int CONTROL_START = 0;
+
+    public interface Listener {
+        /** called for every data record, the payload is only valid until this returns */
+        void onRecord(String name, String type, long timestamp, ByteBuffer payload);
+    }
+
+    private static class Entry {
+        public final String name;
+        public final String type;
+
+        public Entry(String name, String type) {
+            this.name = name;
+            this.type = type;
+        }
+    }
+
+    private static long readInteger(ByteBuffer buffer, int length) {
+        long value = 0;
+        for (int i = 0; i < length; ++i) {
+            value |= (buffer.get() & 0xFFL) << (8 * i);
+        }
+        return value;
+    }
+
+    private static String readString(ByteBuffer buffer) {
+        byte[] bytes = new byte[buffer.getInt()];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    public static void read(Path path, Listener listener) throws IOException {
+        ByteBuffer buffer = ByteBuffer.wrap(Files.readAllBytes(path));
+        buffer.order(ByteOrder.LITTLE_ENDIAN);
+
+        byte[] magic = new byte[MAGIC.length];
+        if (buffer.remaining() < 12) {
+            throw new IOException("\"" + path + "\" is not a wpilog file!");
+        }
+
+        buffer.get(magic);
+        for (int i = 0; i < MAGIC.length; ++i) {
+            if (magic[i] != MAGIC[i]) {
+                throw new IOException("\"" + path + "\" is not a wpilog file!");
+            }
+        }
+
+        buffer.getShort(); // version
+        buffer.position(buffer.position() + buffer.getInt());
+
+        Map<Long, Entry> entries = new HashMap<>();
+
+        while (buffer.remaining() > 0) {
+            int lengths = buffer.get() & 0xFF;
+
+            int idLength = (lengths & 0x3) + 1;
+            int sizeLength = ((lengths >> 2) & 0x3) + 1;
+            int timestampLength = ((lengths >> 4) & 0x7) + 1;
+
+            // files that were cut off when the robot lost power end partway through a record
+            if (buffer.remaining() < idLength + sizeLength + timestampLength) {
+                break;
+            }
+
+            long id = readInteger(buffer, idLength);
+            int size = (int) readInteger(buffer, sizeLength);
+            long timestamp = readInteger(buffer, timestampLength);
+
+            if (size < 0 || buffer.remaining() < size) {
+                break;
+            }
+
+            ByteBuffer payload = buffer.slice();
+            payload.order(ByteOrder.LITTLE_ENDIAN);
+            payload.limit(size);
+            buffer.position(buffer.position() + size);
+
+            if (id == 0) {
+                if (size > 0 && payload.get() == CONTROL_START) {
+                    long entry = payload.getInt() & 0xFFFFFFFFL;
+                    String name = readString(payload);
+                    String type = readString(payload);
+                    entries.put(entry, new Entry(name, type));
+                }
+            } else {
+                Entry entry = entries.get(id);
+                if (entry != null) {
+                    listener.onRecord(entry.name, entry.type, timestamp, payload);
+                }
+            }
+        }
+    }
+}